@@ -0,0 +1,98 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import java.util.ArrayDeque;
+import java.util.Queue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * <p>This {@link Executor} passes jobs to another (shared) {@link Executor}, but never runs more than a given number of them at
+ * the same time. Jobs exceeding this limit are queued and passed on, as soon as a running job is finished.</p>
+ * <p>This allows many {@link CalendarGenerator}s to share one thread pool, while each of them is limited to
+ * {@link CalendarGenerator#getMaxThreadCount()} concurrent calculations - without creating threads of its own.</p>
+ */
+class BoundedExecutor implements Executor {
+
+    private final Executor delegate;
+
+    // guarded by "this"
+    private final Queue<Runnable> waitingJobs = new ArrayDeque<>();
+    private int freeSlots;
+
+    /**
+     * @param delegate the {@link Executor} actually running the jobs
+     * @param maxConcurrentJobs maximal number of jobs passed to delegate at the same time
+     */
+    BoundedExecutor(final Executor delegate, final int maxConcurrentJobs) {
+
+        if (maxConcurrentJobs < 1) {
+            throw new IllegalArgumentException("At least one concurrent job must be allowed: " + maxConcurrentJobs);
+        }
+
+        this.delegate = delegate;
+        this.freeSlots = maxConcurrentJobs;
+    }
+
+    @Override
+    public void execute(final Runnable job) {
+
+        synchronized (this) {
+            this.waitingJobs.add(job);
+        }
+
+        this.passWaitingJobs();
+    }
+
+    /**
+     * Passes waiting jobs to the delegate until the limit is reached or no jobs are left. If the delegate rejects a job (e.g. because
+     * it was shut down), the job is run by the current thread instead, which keeps the slot taken for it - this way every job gets
+     * run and the futures waiting for it complete, even if rejection happens on a worker thread, where nobody would notice an
+     * exception.
+     */
+    private void passWaitingJobs() {
+
+        while (true) {
+
+            final Runnable job;
+
+            synchronized (this) {
+
+                if (this.freeSlots == 0 || this.waitingJobs.isEmpty()) {
+                    return;
+                }
+
+                this.freeSlots--;
+                job = this.waitingJobs.poll();
+            }
+
+            try {
+                this.delegate.execute( () -> {
+                    try {
+                        job.run();
+                    } finally {
+                        this.onJobFinished();
+                    }
+                });
+            } catch (RejectedExecutionException e) {
+
+                // the slot is released without calling onJobFinished(), so rejected jobs don't nest
+                try {
+                    job.run();
+                } finally {
+                    synchronized (this) {
+                        this.freeSlots++;
+                    }
+                }
+            }
+        }
+    }
+
+    private void onJobFinished() {
+
+        synchronized (this) {
+            this.freeSlots++;
+        }
+
+        this.passWaitingJobs();
+    }
+}
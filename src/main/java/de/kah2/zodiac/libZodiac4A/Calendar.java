@@ -4,10 +4,14 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.ConcurrentModificationException;
-import java.util.LinkedList;
+import java.util.Iterator;
 import java.util.List;
-import java.util.TreeSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+
+import de.kah2.zodiac.libZodiac4A.planetary.LunarEphemeris;
 
 /**
  * <p>This is the "main" class of libZodiac. It contains the main logic of managing calendar data like ranges, scope, etc.</p>
@@ -31,6 +35,9 @@ public class Calendar {
 
 	private CalendarGenerator generator = new CalendarGenerator(this);
 
+	// the last snapshot published, readable during generation - see getSnapshot()
+	private volatile CalendarSnapshot snapshot = CalendarSnapshot.EMPTY;
+
 	/**
 	 * Tells the calendar, how much data is needed / how much overhead to
 	 * produce
@@ -57,6 +64,12 @@ public class Calendar {
 
 	private final Scope scope;
 
+	private boolean isRiseSetCalculatedLazily = false;
+
+	private DayCache dayCache = null;
+
+	private LunarEphemeris lunarEphemeris = null;
+
 	/**
 	 * Creates an empty Calendar.
 	 *
@@ -88,6 +101,37 @@ public class Calendar {
 		this.generator.importDays(storedDays);
 	}
 
+	/**
+	 * Does the same as {@link #importDays(List)}, but takes the days one by one, so they needn't be in memory at once - e.g. when
+	 * reading from a database cursor. For a {@link java.util.stream.Stream} pass {@link java.util.stream.Stream#iterator()}.
+	 * <p>Importing is fastest, if days are in chronological order.</p>
+	 *
+	 * @param storedDays
+	 *            an {@link Iterator} over {@link DayStorableDataSet}-objects of
+	 *            already calculated days - objects may be reused, since their data is copied.
+	 */
+	public void importDays(final Iterator<? extends DayStorableDataSet> storedDays){
+		this.generator.importDays(storedDays);
+	}
+
+	/**
+	 * Does the same as {@link #importDays(List)}, but creates the {@link Day}-objects of large lists (e.g. archives of several
+	 * years) in parallel, using the threads calculating days - see
+	 * {@link CalendarGenerator#setSharedExecutor(java.util.concurrent.ExecutorService)} and
+	 * {@link CalendarGenerator#setVirtualThreadsEnabled(boolean)}. The elements of the list must allow being read
+	 * by several threads - if the list has no fast random access, days are imported one by one.
+	 * <p>Not more than {@link CalendarGenerator#getMaxThreadCount()} threads are used, including the calling one, which imports
+	 * like the others and only waits for parts already in progress. So this may also be called by a thread of the shared pool: if
+	 * no other thread is free, the calling one imports all days itself.</p>
+	 *
+	 * @param storedDays
+	 *            a {@link List} of {@link DayStorableDataSet}-objects of
+	 *            already calculated days - they needn't be sorted.
+	 */
+	public void importDaysInParallel(final List<? extends DayStorableDataSet> storedDays){
+		this.generator.importDaysInParallel(storedDays);
+	}
+
 	/**
 	 * <p>Initializes the calendar and calculates the (missing) data between and
 	 * around {@link Calendar#getRangeExpected()} regarding the chosen
@@ -103,6 +147,19 @@ public class Calendar {
 		this.generator.startGeneration();
 	}
 
+	/**
+	 * <p>Does the same as {@link #startGeneration()}, but returns immediately instead of blocking the calling thread.</p>
+	 * <p>Calculation of the days itself is done by the threads of {@link CalendarGenerator}, while the steps in between (saving
+	 * results, calculating lunar phases, extending and notifying {@link ProgressListener}s) are run by the given executor.</p>
+	 * <p>Don't start another generation or import days before the returned future is completed.</p>
+	 * @param executor the {@link Executor} to run the steps between calculations
+	 * @return a future completing with the days that were created by this generation process, see {@link #getNewlyGenerated()}.
+	 */
+	public CompletableFuture<List<Day>> generateAsync(final Executor executor) {
+
+		return this.generator.generateAsync(executor);
+	}
+
 	/**
 	 * @param progressListener the {@link ProgressListener} to register
 	 */
@@ -123,17 +180,20 @@ public class Calendar {
 		LocalDate expectedStart = this.getRangeExpected().getStart();
 		LocalDate expectedEnd = this.getRangeExpected().getEnd();
 
-		final LinkedList<Day> allDays = this.getAllDays();
+		this.throwExceptionIfInProgress();
 
 		if (!this.days.isEmpty()) {
-			if (allDays.getFirst().getDate().isBefore(expectedStart)) {
-				this.log.debug( "Fixing start of expected range: {} => {}", allDays.getFirst().getDate(), expectedStart );
-				expectedStart = allDays.getFirst().getDate();
+			final LocalDate first = this.days.getFirst().getDate();
+			final LocalDate last = this.days.getLast().getDate();
+
+			if (first.isBefore(expectedStart)) {
+				this.log.debug( "Fixing start of expected range: {} => {}", first, expectedStart );
+				expectedStart = first;
 			}
 
-			if (allDays.getLast().getDate().isAfter(expectedEnd)) {
-				this.log.debug( "Fixing end of expected range: {} => {}", allDays.getLast().getDate(), expectedEnd );
-				expectedEnd = allDays.getLast().getDate();
+			if (last.isAfter(expectedEnd)) {
+				this.log.debug( "Fixing end of expected range: {} => {}", last, expectedEnd );
+				expectedEnd = last;
 			}
 
 			this.setRangeExpected(new DateRange(expectedStart, expectedEnd));
@@ -154,7 +214,7 @@ public class Calendar {
 	 * @return The deleted days to be able to also delete them from storage or
 	 *         null if nothing was removed.
 	 */
-	public LinkedList<Day> removeOverhead(final boolean alsoDeleteFutureDays) {
+	public List<Day> removeOverhead(final boolean alsoDeleteFutureDays) {
 
 		DateRange rangeToKeep = switch ( this.scope ) {
 			case PHASE -> new DateRange( this.getRangeExpected().getStart().minusDays( 1 ), this.getRangeExpected().getEnd().plusDays( 1 ) );
@@ -163,12 +223,14 @@ public class Calendar {
 					this.getRangeExpected();
 		};
 
-		LinkedList<Day> removed = this.days.removeBefore( rangeToKeep.getStart() );
+		List<Day> removed = this.days.removeBefore( rangeToKeep.getStart() );
 
 		if (alsoDeleteFutureDays) {
 			removed.addAll( this.days.removeAfter( rangeToKeep.getEnd() ) );
 		}
 
+		this.publishSnapshot();
+
 		return removed;
 	}
 
@@ -182,13 +244,11 @@ public class Calendar {
 			return this.getRangeExpected();
 		}
 
-		final TreeSet<Day> days = this.days.allAsTreeSet();
-
-		final LocalDate start = findNextLunarExtreme(days, this.getRangeExpected().getStart(), false);
+		final LocalDate start = findNextLunarExtreme(this.days, this.getRangeExpected().getStart(), false);
 		final LocalDate end;
 
 		if (alsoCheckFuture) {
-			end = findNextLunarExtreme(days, this.getRangeExpected().getEnd(), true);
+			end = findNextLunarExtreme(this.days, this.getRangeExpected().getEnd(), true);
 		} else {
 			end = this.getRangeExpected().getEnd().plusDays(1);
 		}
@@ -196,12 +256,12 @@ public class Calendar {
 		return new DateRange(start, end);
 	}
 
-	private LocalDate findNextLunarExtreme(TreeSet<Day> days, LocalDate start, boolean isDirectionForward) {
+	private LocalDate findNextLunarExtreme(CalendarData days, LocalDate start, boolean isDirectionForward) {
 
 		// Get first
-		Day current = days.ceiling( new Day(start) );
+		Day current = days.get(start);
 
-		if ( current == null || !current.getDate().isEqual(start) ) {
+		if ( current == null ) {
 			// Requested days isn't contained - we're done
 			return start;
 		}
@@ -268,7 +328,7 @@ public class Calendar {
 	 * @return  all days contained. Consistency isn't guaranteed - if no days are available, an empty list is returned.
 	 * @throws ConcurrentModificationException If calculation isn't finished.
 	 */
-	public LinkedList<Day> getAllDays() {
+	public List<Day> getAllDays() {
 
 		this.throwExceptionIfInProgress();
 
@@ -280,12 +340,12 @@ public class Calendar {
 	 * @return All days satisfying scope requirements or null, if data isn't available or contains gaps.
 	 * @throws ConcurrentModificationException If calculation isn't finished.
 	 */
-	public LinkedList<Day> getValidDays() {
+	public List<Day> getValidDays() {
 
 		this.throwExceptionIfInProgress();
 
 		if (this.days.isEmpty()) {
-			return new LinkedList<>();
+			return new ArrayList<>();
 		}
 
 		if ( !this.days.isComplete() ) {
@@ -315,6 +375,29 @@ public class Calendar {
 		return this.days.isComplete( this.getRangeExpected() );
 	}
 
+	/**
+	 * <p>Returns the days contained after the last finished import, generation or removal of overhead.</p>
+	 * <p>Unlike {@link #getAllDays()} and {@link #getValidDays()} this never throws a {@link ConcurrentModificationException}: while
+	 * the {@link Calendar} is busy, the last snapshot published is returned. Listen for {@link ProgressListener.State#FINISHED} or
+	 * {@link ProgressListener.State#IMPORT_FINISHED} to get notified, when a new snapshot is available.</p>
+	 * @return a {@link CalendarSnapshot} - never null.
+	 */
+	public CalendarSnapshot getSnapshot() {
+		return this.snapshot;
+	}
+
+	/**
+	 * Publishes a new {@link CalendarSnapshot} after modifying {@link #days}. Must be called by the modifying thread, since the
+	 * values of the days are copied.
+	 */
+	void publishSnapshot() {
+
+		this.snapshot = this.snapshot.next(
+				this.days.toArray(),
+				this.scope,
+				this.days.isEmpty() || this.days.isComplete() );
+	}
+
 	private void throwExceptionIfInProgress() {
 
 		final ProgressListener.State state = this.generator.getProgressManager().getState();
@@ -332,10 +415,68 @@ public class Calendar {
 	 * @return Days that were created by last generation process to be able to add them to a database.
 	 * @throws ConcurrentModificationException If calculation isn't finished.
 	 */
-	public LinkedList<Day> getNewlyGenerated() {
+	public List<Day> getNewlyGenerated() {
 		return this.generator.getNewlyGenerated();
 	}
 
+	/**
+	 * Allows skipping calculation of solar and lunar rise and set times during generation - they are calculated on first access
+	 * instead. Useful, if e.g. only zodiac signs, lunar phases and interpretations are needed.
+	 * @param isLazy true to calculate rise and set times on first access, false (default) to calculate them during generation.
+	 */
+	public void setRiseSetCalculatedLazily(final boolean isLazy) {
+		this.isRiseSetCalculatedLazily = isLazy;
+	}
+
+	/**
+	 * @return true if rise and set times are calculated on first access
+	 * @see #setRiseSetCalculatedLazily(boolean)
+	 */
+	public boolean isRiseSetCalculatedLazily() {
+		return this.isRiseSetCalculatedLazily;
+	}
+
+	/**
+	 * Sets a {@link DayCache} consulted before calculating a day and filled with the days calculated. Share one instance between
+	 * {@link Calendar}s to calculate days of the same location only once.
+	 * <p>NOTE: Days put into the cache need their rise and set times, so {@link #setRiseSetCalculatedLazily(boolean)} has no
+	 * effect, while a cache is set. The cache isn't used while a {@link LunarEphemeris} is set, so calendars sharing a cache always
+	 * get exactly calculated days from it.</p>
+	 * @param dayCache the cache to use or null (default) to always calculate days
+	 */
+	public void setDayCache(final DayCache dayCache) {
+		this.dayCache = dayCache;
+	}
+
+	/**
+	 * @return the {@link DayCache} used or null, if none is set
+	 * @see #setDayCache(DayCache)
+	 */
+	public DayCache getDayCache() {
+		return this.dayCache;
+	}
+
+	/**
+	 * Lets lunar longitude and visibility be interpolated from a table instead of calculating them for every day, which is
+	 * accurate enough for zodiac signs and lunar phases - see {@link LunarEphemeris}.
+	 * <p>NOTE: This is opt-in, since it doesn't speed up generating a calendar once: The table is built in chunks of 128 days, each
+	 * taking about twice as long as calculating these days directly, and the {@link DayCache} isn't used for interpolated days. So
+	 * this only pays off, if many calendars share one table or the same days are generated again - a calendar of a few days is
+	 * calculated several times slower. Run <code>Benchmark ephemeris</code> of the tests to compare both for a year.</p>
+	 * @param lunarEphemeris the table to use, e.g. {@link LunarEphemeris#getShared()}, or null (default) to calculate the values
+	 */
+	public void setLunarEphemeris(final LunarEphemeris lunarEphemeris) {
+		this.lunarEphemeris = lunarEphemeris;
+	}
+
+	/**
+	 * @return the {@link LunarEphemeris} used or null, if lunar data is calculated
+	 * @see #setLunarEphemeris(LunarEphemeris)
+	 */
+	public LunarEphemeris getLunarEphemeris() {
+		return this.lunarEphemeris;
+	}
+
 	/** @return  the {@link Scope} of this instance. */
 	public Scope getScope() {
 		return scope;
@@ -346,7 +487,7 @@ public class Calendar {
 		this.generator = generator;
 	}
 
-	/** Needed for tests to allow testing the generator. */
+	/** Needed for {@link RollingCalendar} and for tests to allow testing the generator. */
 	CalendarGenerator getGenerator() {
 		return generator;
 	}
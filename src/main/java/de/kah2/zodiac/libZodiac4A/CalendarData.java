@@ -1,22 +1,49 @@
 package de.kah2.zodiac.libZodiac4A;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.NavigableSet;
-import java.util.TreeSet;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * This class holds and manages the {@link Day}-objects of a {@link Calendar}.
+ * <p>This class holds and manages the {@link Day}-objects of a {@link Calendar}.</p>
+ * <p>Since days are (mostly) contiguous, they are kept in an array indexed by their epoch day, which allows looking up days without
+ * searching or allocating anything. Gaps are represented by null-elements.</p>
+ * <p>Additionally the contiguous ranges of contained days are tracked, so completeness and gaps can be determined and gaps are
+ * skipped without checking every single date.</p>
+ * <p>NOTE: Memory needed grows with the span from the first to the last day, not with the number of days contained: every date
+ * in between costs one reference (plus the same as reserve for growing), e.g. about 30 KB for ten years. Sparse data spread over
+ * centuries should be kept in several {@link Calendar}s.</p>
  */
 class CalendarData {
 
-    // All days actually contained in the Calendar
-    private final TreeSet<Day> data;
+    private static final int MIN_CAPACITY = 64;
 
-    CalendarData() {
-        this.data = new TreeSet<>();
-    }
+    /** The number of days created at once by a thread of {@link #importDaysInParallel(List, Executor, int)}. */
+    private static final int DAYS_PER_IMPORT_CHUNK = 1024;
+
+    // All days actually contained in the Calendar - data[i] contains the day with epoch day offset + i
+    private Day[] data = new Day[0];
+    private long offset;
+
+    // epoch days of first and last contained day - only valid if size > 0
+    private long first, last;
+
+    private int size = 0;
+
+    // contiguous ranges of contained days: epoch day of start => epoch day of end
+    private final TreeMap<Long, Long> coveredRanges = new TreeMap<>();
 
     /**
      * <p>This method does the job of importing data - it should only be used internally!</p>
@@ -24,81 +51,379 @@ class CalendarData {
      */
 
     void importDays(final List<? extends DayStorableDataSet> storedDays) {
+        this.importDays(storedDays.iterator());
+    }
+
+    /**
+     * <p>Imports days one by one, so they needn't be in memory at once - see {@link Calendar#importDays(Iterator)}.</p>
+     * <p>Days directly following the last contained day (e.g. when importing in chronological order) are appended without
+     * searching the covered range they belong to.</p>
+     * @return the range from the first to the last imported date or null, if there were no days to import
+     */
+    DateRange importDays(final Iterator<? extends DayStorableDataSet> storedDays) {
+
+        long firstImported = Long.MAX_VALUE;
+        long lastImported = Long.MIN_VALUE;
+
+        while (storedDays.hasNext()) {
+
+            final Day day = Day.importFrom( storedDays.next() );
+            final long epochDay = day.getDate().toEpochDay();
+
+            this.add(day, epochDay);
+
+            firstImported = Math.min(firstImported, epochDay);
+            lastImported = Math.max(lastImported, epochDay);
+        }
+
+        return firstImported > lastImported ? null : rangeOfEpochDays(firstImported, lastImported);
+    }
+
+    /**
+     * <p>Does the same as {@link #importDays(Iterator)}, but creates the {@link Day}-objects of large lists in parallel: the calling
+     * thread and up to helperCount jobs passed to executor import chunks of the list, then the days are sorted (which merges the
+     * chunks, if they were sorted already) and added in chronological order.</p>
+     * <p>Each thread takes the next chunk nobody started yet, so the calling thread only waits for chunks already in progress. This
+     * way importing doesn't deadlock, if it's called by a thread of the executor and the helpers never get a thread - the calling
+     * thread then imports all chunks itself.</p>
+     * <p>Elements of the list are read by several threads.</p>
+     * @return the range from the first to the last imported date or null, if there were no days to import
+     */
+    DateRange importDaysInParallel(final List<? extends DayStorableDataSet> storedDays, final Executor executor,
+                                   final int helperCount) {
+
+        if (storedDays.size() <= DAYS_PER_IMPORT_CHUNK || helperCount < 1 || !(storedDays instanceof RandomAccess)) {
+            return this.importDays(storedDays.iterator());
+        }
+
+        final Day[] importedDays = new Day[storedDays.size()];
+        final int chunkCount = (importedDays.length + DAYS_PER_IMPORT_CHUNK - 1) / DAYS_PER_IMPORT_CHUNK;
+
+        final CompletableFuture<?>[] chunks = new CompletableFuture<?>[chunkCount];
+
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            chunks[chunk] = new CompletableFuture<Void>();
+        }
+
+        final AtomicInteger nextChunk = new AtomicInteger();
+
+        final Runnable importer = () -> {
+
+            int chunk;
+
+            while ( (chunk = nextChunk.getAndIncrement()) < chunkCount ) {
+
+                final int start = chunk * DAYS_PER_IMPORT_CHUNK;
+                final int end = Math.min( importedDays.length, start + DAYS_PER_IMPORT_CHUNK );
+
+                try {
+                    for (int i = start; i < end; i++) {
+                        importedDays[i] = Day.importFrom( storedDays.get(i) );
+                    }
+                    chunks[chunk].complete(null);
+                } catch (RuntimeException e) {
+                    chunks[chunk].completeExceptionally(e);
+                }
+            }
+        };
+
+        try {
+            for (int helper = 0; helper < Math.min(helperCount, chunkCount - 1); helper++) {
+                executor.execute(importer);
+            }
+        } catch (RejectedExecutionException e) {
+            // the calling thread imports the chunks left
+        }
+
+        importer.run();
+
+        try {
+            CompletableFuture.allOf(chunks).join();
+        } catch (CompletionException e) {
+            // throw the original exception like importDays(Iterator) would do
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+
+        // sorting a few sorted runs takes linear time, so it needn't be parallel
+        Arrays.sort(importedDays);
+
+        for (Day day : importedDays) {
+            this.add( day, day.getDate().toEpochDay() );
+        }
 
-        for ( DayStorableDataSet storedDay : storedDays) {
-            this.insert(Day.importFrom(storedDay));
+        return new DateRange( importedDays[0], importedDays[importedDays.length - 1] );
+    }
+
+    /** Appends or inserts a day - see {@link #append(Day, long)} and {@link #insert(Day)}. */
+    private void add(final Day day, final long epochDay) {
+
+        if (!this.isEmpty() && epochDay == this.last + 1) {
+            this.append(day, epochDay);
+        } else {
+            this.insert(day);
         }
     }
 
+    /** Adds a day directly following {@link #last}, which extends the last covered range. */
+    private void append(final Day day, final long epochDay) {
+
+        this.ensureCapacityFor(epochDay);
+
+        this.data[this.indexOf(epochDay)] = day;
+        this.last = epochDay;
+        this.size++;
+
+        this.coveredRanges.put(this.coveredRanges.lastKey(), epochDay);
+    }
+
     /**
      * Checks which dates of given range are not contained and returns them.
      */
     LinkedList<LocalDate> getMissingDates(DateRange rangeExpected) {
 
-        if (this.data.isEmpty()) {
+        if (this.isEmpty()) {
             return rangeExpected.toList();
         }
 
         final LinkedList<LocalDate> missingDates = new LinkedList<>();
 
-        for (LocalDate date : rangeExpected) {
-            final Day day = new Day(date);
+        for (DateRange missingRange : this.getMissingRanges(rangeExpected)) {
+            missingDates.addAll( missingRange.toList() );
+        }
+
+        return missingDates;
+    }
+
+    /**
+     * Checks which parts of given range are not contained and returns them in chronological order.
+     */
+    LinkedList<DateRange> getMissingRanges(DateRange rangeExpected) {
+
+        final LinkedList<DateRange> missingRanges = new LinkedList<>();
+
+        final long end = rangeExpected.getEnd().toEpochDay();
+
+        // the first date not known to be contained or missing
+        long next = rangeExpected.getStart().toEpochDay();
+
+        final Long firstRelevantStart = this.coveredRanges.floorKey(next);
+        final Map<Long, Long> relevantRanges = firstRelevantStart == null
+                ? this.coveredRanges.headMap(end, true)
+                : this.coveredRanges.subMap(firstRelevantStart, true, end, true);
+
+        for (Map.Entry<Long, Long> covered : relevantRanges.entrySet()) {
 
-            if (!this.data.contains(day)) {
-                missingDates.add(date);
+            if (covered.getKey() > next) {
+                missingRanges.add( rangeOfEpochDays(next, covered.getKey() - 1) );
             }
+
+            next = Math.max(next, covered.getValue() + 1);
         }
 
-        return missingDates;
+        if (next <= end) {
+            missingRanges.add( rangeOfEpochDays(next, end) );
+        }
+
+        return missingRanges;
+    }
+
+    private static DateRange rangeOfEpochDays(final long start, final long end) {
+        return new DateRange( LocalDate.ofEpochDay(start), LocalDate.ofEpochDay(end) );
     }
 
     /**
-     * Inserts a day at its correct position.
+     * Inserts a day at its correct position. If a day with the same date is already contained, it is kept.
      */
     void insert(Day day) {
-        this.data.add(day);
+
+        final long epochDay = day.getDate().toEpochDay();
+
+        this.ensureCapacityFor(epochDay);
+
+        final int index = this.indexOf(epochDay);
+
+        if (this.data[index] != null) {
+            return;
+        }
+
+        this.data[index] = day;
+
+        if (this.size == 0) {
+            this.first = epochDay;
+            this.last = epochDay;
+        } else {
+            this.first = Math.min(this.first, epochDay);
+            this.last = Math.max(this.last, epochDay);
+        }
+
+        this.size++;
+
+        this.addToCoveredRanges(epochDay);
     }
 
-    /** Removes days before given date. */
-    LinkedList<Day> removeBefore(LocalDate date) {
-        final LinkedList<Day> deletedDays = new LinkedList<>();
+    /** Adds a newly inserted epoch day to {@link #coveredRanges} and merges it with adjacent ranges. */
+    private void addToCoveredRanges(final long epochDay) {
 
-        if (this.isEmpty()) {
-            return deletedDays;
+        long start = epochDay;
+        long end = epochDay;
+
+        final Map.Entry<Long, Long> previous = this.coveredRanges.floorEntry(epochDay - 1);
+
+        if (previous != null && previous.getValue() == epochDay - 1) {
+            start = previous.getKey();
         }
 
-        while ( !this.isEmpty() && this.data.first().getDate().isBefore(date) ) {
-            deletedDays.add( this.data.pollFirst() );
+        final Long nextEnd = this.coveredRanges.remove(epochDay + 1);
+
+        if (nextEnd != null) {
+            end = nextEnd;
+        }
+
+        this.coveredRanges.put(start, end);
+    }
+
+    /**
+     * Grows {@link #data} if given epoch day doesn't fit in. Contained days are centered in the new array to leave space for both
+     * directions.
+     */
+    private void ensureCapacityFor(final long epochDay) {
+
+        if (epochDay >= this.offset && epochDay < this.offset + this.data.length) {
+            return;
+        }
+
+        final long start = this.isEmpty() ? epochDay : Math.min(epochDay, this.first);
+        final long end = this.isEmpty() ? epochDay : Math.max(epochDay, this.last);
+        final int span = Math.toIntExact(end - start + 1);
+
+        final Day[] grown = new Day[ Math.max(MIN_CAPACITY, span * 2) ];
+        final long grownOffset = start - (grown.length - span) / 2;
+
+        if (!this.isEmpty()) {
+            System.arraycopy( this.data, this.indexOf(this.first),
+                    grown, (int) (this.first - grownOffset),
+                    (int) (this.last - this.first + 1) );
+        }
+
+        this.data = grown;
+        this.offset = grownOffset;
+    }
+
+    private int indexOf(final long epochDay) {
+        return (int) (epochDay - this.offset);
+    }
+
+    /** Removes days before given date. */
+    List<Day> removeBefore(LocalDate date) {
+        final List<Day> deletedDays = new ArrayList<>();
+
+        final long epochDay = date.toEpochDay();
+
+        while ( !this.isEmpty() && this.first < epochDay ) {
+            deletedDays.add( this.remove(this.first) );
         }
 
         return deletedDays;
     }
 
     /** Removes days after given date. */
-    LinkedList<Day> removeAfter(LocalDate date) {
-        final LinkedList<Day> deletedDays = new LinkedList<>();
+    List<Day> removeAfter(LocalDate date) {
+        final List<Day> deletedDays = new ArrayList<>();
 
-        if (this.isEmpty()) {
-            return deletedDays;
-        }
+        final long epochDay = date.toEpochDay();
 
-        while ( !this.isEmpty() && this.data.last().getDate().isAfter(date) ) {
-            deletedDays.add( this.data.pollLast() );
+        while ( !this.isEmpty() && this.last > epochDay ) {
+            deletedDays.add( this.remove(this.last) );
         }
 
         return deletedDays;
     }
 
+    /** Removes the first or last day and moves {@link #first} or {@link #last} to the next contained day. */
+    private Day remove(final long epochDay) {
+
+        final int index = this.indexOf(epochDay);
+        final Day removed = this.data[index];
+
+        this.data[index] = null;
+        this.size--;
+
+        if (epochDay == this.first) {
+
+            final long end = this.coveredRanges.remove(epochDay);
+            if (end > epochDay) {
+                this.coveredRanges.put(epochDay + 1, end);
+            }
+
+        } else {
+
+            final long start = this.coveredRanges.lastKey();
+            if (start < epochDay) {
+                this.coveredRanges.put(start, epochDay - 1);
+            } else {
+                this.coveredRanges.remove(start);
+            }
+        }
+
+        if (this.size > 0) {
+            this.first = this.coveredRanges.firstKey();
+            this.last = this.coveredRanges.lastEntry().getValue();
+        }
+
+        return removed;
+    }
+
     Day getFirst() {
-        return this.data.first();
+        if (this.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return this.data[this.indexOf(this.first)];
     }
 
     Day getLast() {
-        return this.data.last();
+        if (this.isEmpty()) {
+            throw new NoSuchElementException();
+        }
+        return this.data[this.indexOf(this.last)];
+    }
+
+    /** @return the next contained day after the given one or null, if there is none. */
+    Day higher(final Day day) {
+
+        final long epochDay = day.getDate().toEpochDay() + 1;
+
+        final Map.Entry<Long, Long> covered = this.coveredRanges.floorEntry(epochDay);
+
+        if (covered != null && covered.getValue() >= epochDay) {
+            return this.data[this.indexOf(epochDay)];
+        }
+
+        // within a gap - skip to the start of the next covered range
+        final Long nextStart = this.coveredRanges.higherKey(epochDay);
+
+        return nextStart == null ? null : this.data[this.indexOf(nextStart)];
+    }
+
+    /** @return the next contained day before the given one or null, if there is none. */
+    Day lower(final Day day) {
+
+        final long epochDay = day.getDate().toEpochDay() - 1;
+
+        final Map.Entry<Long, Long> covered = this.coveredRanges.floorEntry(epochDay);
+
+        if (covered == null) {
+            return null;
+        }
+
+        // within a gap, the end of the covered range before is the next day
+        return this.data[this.indexOf( Math.min(epochDay, covered.getValue()) )];
     }
 
     boolean contains(Day day) {
-        return this.data.contains(day);
+        return this.get(day.getDate()) != null;
     }
 
     /**
@@ -107,46 +432,86 @@ class CalendarData {
      */
     Day get(final LocalDate date) {
 
-        final Day dummyDay = new Day(date);
-
-        NavigableSet<Day> subSet = this.data.subSet(dummyDay, true, dummyDay, true);
+        final long epochDay = date.toEpochDay();
 
-        if ( subSet.isEmpty() ) {
+        if ( this.isEmpty() || epochDay < this.first || epochDay > this.last ) {
             return null;
-        } else {
-            return subSet.first();
         }
+
+        return this.data[this.indexOf(epochDay)];
     }
 
     /**
      * Returns all {@link Day}-elements this calendar contains.<br/>
      * Consistency isn't guaranteed, if no data is available an empty list is returned.
      */
-    LinkedList<Day> allAsList() {
-        return new LinkedList<>(this.data);
+    List<Day> allAsList() {
+        final List<Day> days = new ArrayList<>(this.size);
+
+        if (!this.isEmpty()) {
+            this.addContainedDays(days, this.first, this.last);
+        }
+
+        return days;
     }
 
-    /**
-     * Returns all {@link Day}-elements this calendar contains.<br/>
-     * Consistency isn't guaranteed, if no data is available an empty list is returned.
-     */
-    TreeSet<Day> allAsTreeSet() {
-        return new TreeSet<>(this.data);
+    /** Returns all contained days in chronological order - like {@link #allAsList()}, but copies them only once. */
+    Day[] toArray() {
+        final Day[] days = new Day[this.size];
+
+        int index = 0;
+
+        for (Map.Entry<Long, Long> covered : this.coveredRanges.entrySet()) {
+
+            final int length = (int) (covered.getValue() - covered.getKey() + 1);
+
+            System.arraycopy( this.data, this.indexOf(covered.getKey()), days, index, length );
+            index += length;
+        }
+
+        return days;
     }
 
     /**
      * Returns all days within a given range. Range might contain gaps!
      */
-    LinkedList<Day> of(Day start, Day end) {
+    List<Day> of(Day start, Day end) {
 
-        NavigableSet<Day> subSet = this.data.subSet(start, true, end, true);
+        if (this.isEmpty()) {
+            return new ArrayList<>();
+        }
 
-        return new LinkedList<>(subSet);
+        final long startEpochDay = Math.max( this.first, start.getDate().toEpochDay() );
+        final long endEpochDay = Math.min( this.last, end.getDate().toEpochDay() );
+
+        final List<Day> days = new ArrayList<>( (int) Math.max(0, endEpochDay - startEpochDay + 1) );
+        this.addContainedDays(days, startEpochDay, endEpochDay);
+
+        return days;
+    }
+
+    /** Adds all contained days between the given epoch days, which must be within {@link #first} and {@link #last}. */
+    private void addContainedDays(final List<Day> target, final long startEpochDay, final long endEpochDay) {
+
+        final Long firstRelevantStart = this.coveredRanges.floorKey(startEpochDay);
+        final Map<Long, Long> relevantRanges = firstRelevantStart == null
+                ? this.coveredRanges.headMap(endEpochDay, true)
+                : this.coveredRanges.subMap(firstRelevantStart, true, endEpochDay, true);
+
+        // gaps are skipped
+        for (Map.Entry<Long, Long> covered : relevantRanges.entrySet()) {
+
+            final long end = Math.min(endEpochDay, covered.getValue());
+
+            for (long epochDay = Math.max(startEpochDay, covered.getKey()); epochDay <= end; epochDay++) {
+                target.add( this.data[this.indexOf(epochDay)] );
+            }
+        }
     }
 
     /** Returns the number of all contained days. */
     public int size() {
-        return this.data.size();
+        return this.size;
     }
 
     /**
@@ -157,23 +522,24 @@ class CalendarData {
             return null;
         }
 
-        return new DateRange(this.data.first(), this.data.last());
+        return new DateRange(this.getFirst(), this.getLast());
     }
 
+    /** Checks if contained days have no gaps. */
     boolean isComplete() {
-        final DateRange all = this.getRangeOfAllContainedDays();
-        return all != null && this.isComplete(all);
+        return this.coveredRanges.size() == 1;
     }
 
     /** Checks if {@link Day}-objects exist for all dates in given range. */
     boolean isComplete(DateRange range) {
-        return this.getMissingDates(range).isEmpty();
+        final Map.Entry<Long, Long> covered = this.coveredRanges.floorEntry( range.getStart().toEpochDay() );
+        return covered != null && covered.getValue() >= range.getEnd().toEpochDay();
     }
 
     /**
      * Checks if any calculated days are present.
      */
     boolean isEmpty() {
-        return this.data.isEmpty();
+        return this.size == 0;
     }
 }
@@ -4,21 +4,29 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.LinkedList;
 import java.util.List;
-import java.util.ListIterator;
+import java.util.Map;
 import java.util.SortedSet;
 import java.util.TreeSet;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.Future;
-import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.ThreadPoolExecutor;
-import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
 
+import de.kah2.zodiac.libZodiac4A.ProgressListener.State;
+import de.kah2.zodiac.libZodiac4A.planetary.LunarEphemeris;
 import de.kah2.zodiac.libZodiac4A.planetary.LunarPhase;
 import de.kah2.zodiac.libZodiac4A.planetary.PlanetaryDayData;
 
@@ -26,7 +34,7 @@ import de.kah2.zodiac.libZodiac4A.planetary.PlanetaryDayData;
 /**
  * This class contains logic for calculation of planetary data.
  */
-public class CalendarGenerator implements ProgressListener {
+public class CalendarGenerator {
 
     private final Logger log = LoggerFactory.getLogger(this.getClass());
 
@@ -41,31 +49,63 @@ public class CalendarGenerator implements ProgressListener {
     /** default for {@link #maxThreadCount} */
     private final static int NUMBER_OF_CORES = Runtime.getRuntime().availableProcessors();
 
+    /** Runs steps between calculations on the thread completing the last job, used when generation is started blocking. */
+    private final static Executor DIRECT_EXECUTOR = Runnable::run;
+
     /** Background calculations will be done below {@link Thread#NORM_PRIORITY}, to not throttle the UI */
     private int threadPriority = Thread.NORM_PRIORITY - 1;
 
     /** @see #getMaxThreadCount() */
     private int maxThreadCount = 0;
 
-    private ThreadPoolExecutor executor;
+    /** The {@link ExecutorService} set via {@link #setSharedExecutor(ExecutorService)} - if null, one of the following is used. */
+    private static ExecutorService sharedExecutor;
+
+    /** The pool shared by all instances, if no other {@link ExecutorService} is set. Created on first use. */
+    private static ExecutorService libraryPool;
+
+    /**
+     * Starts a virtual thread for each job - only set, if enabled and supported by the runtime. Volatile, so
+     * {@link #isUsingVirtualThreads()} needn't lock.
+     */
+    private static volatile ExecutorService virtualThreadExecutor;
+
+    /**
+     * When virtual threads are used, they are cheap to block, but calculations are CPU-bound: Only this many run at the same time,
+     * so calculations don't occupy all carrier threads needed by e.g. I/O-bound jobs of the application.
+     */
+    private final static Semaphore CPU_PERMITS = new Semaphore(NUMBER_OF_CORES);
+
+    /** Passes the calculation jobs of this instance to {@link #sharedExecutor} - recreated for each generation process. */
+    private BoundedExecutor executor;
+
+    /** True if {@link #executor} runs jobs on {@link #virtualThreadExecutor}, so they need {@link #CPU_PERMITS}. */
+    private boolean isExecutorVirtual;
 
     private final LinkedList<CompletableFuture<Day>> activeCalculations = new LinkedList<>();
 
-    private boolean isSubmittingJobs = false;
+    // updates phases and counters around dirty days - extensions have their own, since they might run in parallel
+    private final LunarPhaseKernel lunarPhaseKernel = new LunarPhaseKernel();
 
-    // true during calculation to allow main thread to wait for calculation jobs
-    private boolean mainThreadMustWait = false;
-    private final static int THREAD_WAIT_INTERVALL_MS = 500;
+    // range of days inserted since lunar phases and counters were updated - null if there are none
+    private LocalDate firstDirtyDate, lastDirtyDate;
 
-    // Needed for extension:
-    private SortedSet<Day> extensionCache;
-    private boolean isExtendingPast;
+    /**
+     * Maximal number of dates probed at once. Lunar extremes are less than 16 days apart, so this covers every predicted distance
+     * plus {@link #PREDICTION_MARGIN_DAYS} - if probing finds no extreme anyway, the days probed are calculated and probing starts
+     * again from there.
+     */
+    private final static int MAX_DAYS_TO_PROBE = 20;
+
+    /** Mean length of a lunar cycle (new moon to new moon) in days, needed to predict the next lunar extreme */
+    final static double SYNODIC_MONTH_DAYS = 29.530589;
+
+    /** Dates probed in addition to the predicted distance to the next lunar extreme, to compensate prediction errors */
+    private final static int PREDICTION_MARGIN_DAYS = 2;
 
     CalendarGenerator(Calendar calendar) {
         this.calendar = calendar;
         this.days = calendar.getDays();
-
-        this.progressManager.addProgressListener(this);
     }
 
     /**
@@ -73,26 +113,124 @@ public class CalendarGenerator implements ProgressListener {
      * @see Calendar#importDays(List)
      */
     void importDays(final List<? extends DayStorableDataSet> storedDays){
+        this.importDays(storedDays.iterator());
+    }
 
-        this.progressManager.notifyStateChanged(State.IMPORTING);
+    /**
+     * Main method to import data.
+     * @see Calendar#importDays(Iterator)
+     */
+    void importDays(final Iterator<? extends DayStorableDataSet> storedDays){
+        this.runImport( () -> this.days.importDays(storedDays) );
+    }
 
-        this.days.importDays(storedDays);
+    /**
+     * Main method to import data using several threads: the calling one and helpers of the shared pool, but - like calculations -
+     * not more than {@link #getMaxThreadCount()} in total.
+     * @see Calendar#importDaysInParallel(List)
+     */
+    void importDaysInParallel(final List<? extends DayStorableDataSet> storedDays){
 
-        this.updateLunarPhases( this.days.allAsList() );
+        final int helperCount = this.getMaxThreadCount() - 1;
 
-        if (this.calendar.getScope() == Calendar.Scope.CYCLE) {
-            this.countDaysToLunarExtremesInBothDirections();
+        this.runImport( () -> this.days.importDaysInParallel(storedDays, getSharedExecutor(), helperCount) );
+    }
+
+    /**
+     * Imports days and updates lunar phases and day counters around them.
+     * @param importer imports the days into {@link #days} and returns the range from the first to the last imported date or null
+     */
+    private void runImport(final Supplier<DateRange> importer) {
+
+        this.progressManager.notifyStateChanged(State.IMPORTING);
+
+        final DateRange importedRange = importer.get();
+
+        // only first and last date matter for updating
+        if (importedRange != null) {
+            this.markDirty(importedRange.getStart());
+            this.markDirty(importedRange.getEnd());
         }
 
+        this.updateDirtyDays();
+
+        this.calendar.publishSnapshot();
+
         this.progressManager.notifyStateChanged(State.IMPORT_FINISHED);
     }
 
     /**
-     * STEP 1: Starts generation. Called by {@link Calendar#startGeneration()}.
+     * Starts generation and blocks until it is finished. Called by {@link Calendar#startGeneration()}.
+     * @see #generateAsync(Executor)
      */
     void startGeneration() {
 
-        this.log.trace("######## startGeneration() ########");
+        this.generateAsync(DIRECT_EXECUTOR).join();
+    }
+
+    /**
+     * STEP 1: Starts generation. Called by {@link Calendar#generateAsync(Executor)}.
+     * @param executor used to run the steps between the calculation jobs like saving results, lunar phase calculation and
+     *                 notifying {@link ProgressListener}s.
+     * @return a future completing with the newly generated days, when all steps are done.
+     */
+    CompletableFuture<List<Day>> generateAsync(final Executor executor) {
+
+        this.log.trace("######## generateAsync() ########");
+
+        return this.generateAsync(this.getRangeNeededToCalculate(), false, executor);
+    }
+
+    /**
+     * Checks if the expected range was only moved forward, so only the days following the last one contained are missing: the days
+     * are contained without gaps from the start of {@link #getRangeNeededToCalculate()} to the last one and - if scope is CYCLE -
+     * the lunar extreme before the expected range is known.
+     */
+    boolean isOnlyEndMissing() {
+
+        if (this.days.isEmpty()) {
+            return false;
+        }
+
+        final LocalDate firstNeeded = this.getRangeNeededToCalculate().getStart();
+        final LocalDate last = this.days.getLast().getDate();
+
+        if ( last.isBefore(firstNeeded) || !this.days.isComplete( new DateRange(firstNeeded, last) ) ) {
+            return false;
+        }
+
+        if (this.calendar.getScope() != Calendar.Scope.CYCLE) {
+            return true;
+        }
+
+        final Day extreme = this.findLunarExtremeOrEnd( new Day(this.calendar.getRangeExpected().getStart()), false );
+        final LunarPhase phase = extreme.getPlanetaryData() == null ? null : extreme.getPlanetaryData().getLunarPhase();
+
+        return phase != null && phase.isLunarExtreme();
+    }
+
+    /**
+     * Generates only the days following the last one contained and blocks until all is done. Called by {@link RollingCalendar}, if
+     * {@link #isOnlyEndMissing()}: unlike {@link #startGeneration()}, the dates within the expected range aren't searched for gaps
+     * and the past isn't extended, so only the new days are marked dirty and run through {@link #updateDirtyDays()}.
+     */
+    void startGeneratingEnd() {
+
+        final LocalDate firstMissing = this.days.getLast().getDate().plusDays(1);
+        final LocalDate lastNeeded = this.getRangeNeededToCalculate().getEnd();
+
+        // an empty range, if the days after the expected range are already known - DateRange would swap its ends
+        final DateRange rangeMissing = firstMissing.isAfter(lastNeeded) ? null : new DateRange(firstMissing, lastNeeded);
+
+        this.generateAsync(rangeMissing, true, DIRECT_EXECUTOR).join();
+    }
+
+    /**
+     * @param rangeNeeded the range to generate missing days for or null, if none are missing
+     * @param isPastKnown true, if the lunar extreme before the expected range is known and the past mustn't be extended
+     */
+    private CompletableFuture<List<Day>> generateAsync(final DateRange rangeNeeded, final boolean isPastKnown,
+                                                       final Executor executor) {
 
         this.newlyGenerated.clear();
 
@@ -103,13 +241,25 @@ public class CalendarGenerator implements ProgressListener {
 
         this.executor = this.createExecutor();
 
-        DateRange rangeNeeded = this.getRangeNeededToCalculate();
+        if (rangeNeeded != null) {
+            this.generateDaysNeededInExpectedRange(rangeNeeded);
+        }
 
-        this.enableWaiting();
+        return this.allActiveCalculations()
+                .thenRunAsync(this::onGenerationFinished, executor)
+                .thenCompose(nothing -> {
 
-        this.generateDaysNeededInExpectedRange(rangeNeeded);
+                    if (this.calendar.getScope() == Calendar.Scope.CYCLE) {
+                        return this.extendToLunarExtremes(isPastKnown, executor);
+                    } else {
+                        return CompletableFuture.completedFuture(null);
+                    }
+                })
+                .thenApplyAsync(nothing -> {
 
-        this.waitForWorkerThreads();
+                    this.onFinished();
+                    return this.getNewlyGenerated();
+                }, executor);
     }
 
     /**
@@ -120,341 +270,451 @@ public class CalendarGenerator implements ProgressListener {
 
         Collection<LocalDate> missingDates = this.days.getMissingDates( range );
 
-        if ( missingDates.isEmpty() ) {
-            this.continueOnMainThread();
-            return;
-        }
-
         this.progressManager.addNumberOfDaysToGenerate(missingDates.size());
 
-        this.isSubmittingJobs = true;
-
         for (LocalDate date : missingDates) {
 
-            this.startDayCreationThread(date);
+            this.activeCalculations.add( this.startDayCreationThread(date, Double.NaN) );
         }
-
-        this.isSubmittingJobs = false;
-
-        // workaround to ensure calculation state is checked after submitting, if all jobs are already finished
-        this.onCalculationProgress(-1);
     }
 
     /**
-     * Used for {@link #waitForWorkerThreads()} to wait until {@link #continueOnMainThread()} is called.
+     * Returns a future completing when all jobs in {@link #activeCalculations} are completed - failed jobs are already mapped to
+     * <code>null</code> by {@link #startDayCreationThread(LocalDate, double)}, so it doesn't complete exceptionally.
      */
-    private void enableWaiting() {
-        this.mainThreadMustWait = true;
+    private CompletableFuture<Void> allActiveCalculations() {
+
+        log.trace("allActiveCalculations: waiting for {} jobs", this.activeCalculations.size());
+
+        return CompletableFuture.allOf( this.activeCalculations.toArray( new CompletableFuture<?>[0] ) );
     }
 
-    /**
-     * Used by main thread to wait for worker threads. Called by {@link #startGeneration()} and {@link #startExtending(boolean)}.
-     * After {@link #enableWaiting()} was called, this method waits for {@link #continueOnMainThread()} to be called.
-     */
-    private void waitForWorkerThreads() {
+    private boolean areAllCalculationsDone() {
 
-        while (this.mainThreadMustWait) {
-            try {
+        this.log.trace("######## areAllCalculationsDone() ########");
 
-                log.trace("waiting " + THREAD_WAIT_INTERVALL_MS + "ms");
-                Thread.sleep(THREAD_WAIT_INTERVALL_MS);
+        for (Future<Day> future : this.activeCalculations) {
+            if (!future.isDone()) {
+                this.log.trace("\tactive jobs are left");
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** Saves calculation results and clears list of calculation jobs. */
+    private void onGenerationFinished() {
+
+        this.log.trace("######## onGenerationFinished() ########");
 
-            } catch (InterruptedException e) {
+        for (Future<Day> job : this.activeCalculations) {
+            try {
+                final Day result = job.get();
 
-                log.error("Error during sleep:", e);
+                this.insert(result);
+                this.newlyGenerated.add(result);
+            }
+            catch (Exception e) {
+                this.log.error("Error calculating day", e);
             }
         }
 
-        log.trace("waitForWorkerThreads: continuing on main thread ...");
+        this.activeCalculations.clear();
 
-        this.doStateChange();
+        if (this.calendar.getScope() == Calendar.Scope.CYCLE) {
+            // Extension needs the phases, counting follows after extending
+            this.updateLunarPhasesOfDirtyDays();
+        } else {
+            this.updateDirtyDays();
+        }
     }
 
-    /** Notifies main thread to continue at {@link #waitForWorkerThreads()}. */
-    private void continueOnMainThread() {
-        log.trace("setting mainThreadMustWait to false");
-        this.mainThreadMustWait = false;
-    }
 
-    /** This is not needed, because states are set by this class */
-    @Override
-    public void onStateChanged(State state) {
+    /**
+     * Extends to the lunar extremes around the expected range, counts days and finishes. Blocks until all is done.
+     * Only needed for tests - otherwise extending is part of {@link #generateAsync(Executor)}.
+     */
+    void startExtending() {
 
-		log.trace( "onStateChanged: State changed to {}", state ); }
+        this.executor = this.createExecutor();
+
+        this.extendToLunarExtremes(false, DIRECT_EXECUTOR)
+                .thenRun(this::onFinished)
+                .join();
+    }
 
     /**
-     * Checks if a calculation step is finished and calls #doStateChange - argument is ignored. Must be synchronized,
-     * only one thread at a time is able to update progress and possibly trigger a state change.
+     * STEP 2: Extends past and future at the same time, afterwards saves the results and counts days between the lunar extremes
+     * found.
+     * @param isPastKnown true, if only the future needs to be extended
      */
-    @Override
-    public synchronized void onCalculationProgress(float percent) {
+    private CompletableFuture<Void> extendToLunarExtremes(final boolean isPastKnown, final Executor executor) {
 
-        if ( !(this.executor == null || this.executor.isShutdown()) ) { // => it's possible we're calculating
+        final Extension past;
+        final CompletableFuture<Void> pastExtended;
 
-            if ( this.areAllCalculationsDone() ) {
+        if (isPastKnown) {
 
-                if (this.progressManager.getState() == State.GENERATING) {
+            this.progressManager.notifyStateChanged(State.EXTENDING_FUTURE);
 
-                    // Finished generating expected range - continue on main thread
-                    this.continueOnMainThread();
+            past = null;
+            pastExtended = CompletableFuture.completedFuture(null);
 
-                } else { // if executor is set and status isn't GENERATING, status is EXTENDING_PAST or EXTENDING_FUTURE
+        } else {
 
-                    this.onExtensionBundleFinished();
-                }
-            }
+            this.progressManager.notifyStateChanged(State.EXTENDING_PAST);
+
+            // Both directions are extended at the same time, so EXTENDING_FUTURE signals, that only the future is left
+            past = new Extension(true);
+            pastExtended = past.extendUntilLunarExtremeFound(executor)
+                    .thenRunAsync(() -> this.progressManager.notifyStateChanged(State.EXTENDING_FUTURE), executor);
         }
-    }
 
-    private boolean areAllCalculationsDone() {
+        final Extension future = new Extension(false);
+        final CompletableFuture<Void> futureExtended = future.extendUntilLunarExtremeFound(executor);
 
-        this.log.trace("######## areAllCalculationsDone() ########");
+        return CompletableFuture.allOf(pastExtended, futureExtended)
+                .thenRunAsync(() -> {
 
-        if (this.isSubmittingJobs) {
-            this.log.trace("\tstill submitting jobs");
-            return false;
-        }
+                    // Both extensions run concurrently, so CalendarData is only modified afterwards
+                    if (past != null) {
+                        past.save();
+                    }
+                    future.save();
 
-        for (Future<Day> future : this.activeCalculations) {
-            if (!future.isDone()) {
-                this.log.trace("\tactive jobs are left");
-                return false;
-            }
-        }
-        return true;
+                    this.startCounting();
+
+                }, executor);
     }
 
     /**
-     * Checks past state and decides which state should follow.
-     * Should only be run on main thread - in threads use {@link #continueOnMainThread()}, which triggers
-     * {@link #waitForWorkerThreads()} to continue and call this.
+     * <p>Searches the lunar extreme in one direction outside of the expected range.</p>
+     * <p>Instead of calculating small sets of days one after another, the distance to the extreme is predicted (see
+     * {@link #predictDaysToLunarExtreme(double, double)}) and the extreme is located by calculating only the lunar visibility of the
+     * dates until there (see {@link #calculateLunarVisibility(LocalDate)}) at the same time. Afterwards all days until the extreme
+     * are calculated at once - days behind it are never calculated.</p>
      */
-    private void doStateChange() {
+    private class Extension {
 
-        switch (this.progressManager.getState()) {
+        private final boolean isPast;
 
-            case GENERATING:
+        /** Contains the known days outside of expected range and the extended ones */
+        private final TreeSet<Day> cache = new TreeSet<>();
 
-                this.onGenerationFinished();
+        private final LinkedList<CompletableFuture<Day>> jobs = new LinkedList<>();
 
-                if (this.calendar.getScope() == Calendar.Scope.CYCLE) {
+        private final LunarPhaseKernel lunarPhaseKernel = new LunarPhaseKernel();
 
-                    this.startExtending(true);
+        Extension(final boolean isPast) {
 
-                } else {
-                    this.onFinished();
-                }
+            this.isPast = isPast;
 
-                break;
+            final Day firstDayToCheck, lastDayToCheck;
 
-            case EXTENDING_PAST:
+            // Move complete "overhead" to cache to check for extremes outside of expected range - to avoid extending if
+            // it's not needed
+            if (isPast) {
+                firstDayToCheck = CalendarGenerator.this.days.getFirst();
+                lastDayToCheck = new Day( CalendarGenerator.this.calendar.getRangeExpected().getStart() ); // Data isn't relevant here - create a dummy
+            } else {
+                firstDayToCheck = new Day( CalendarGenerator.this.calendar.getRangeExpected().getEnd() );
+                lastDayToCheck = CalendarGenerator.this.days.getLast();
+            }
 
-                this.startExtending(false);
+            this.cache.addAll( CalendarGenerator.this.days.of(firstDayToCheck, lastDayToCheck) );
+        }
 
-                break;
+        /**
+         * Probes the dates until the next lunar extreme, calculates the days until there and repeats this until the cache contains a
+         * lunar extreme. Probing and calculation are done by worker threads, so no thread is blocked while waiting and both
+         * directions are searched at the same time.
+         */
+        CompletableFuture<Void> extendUntilLunarExtremeFound(final Executor executor) {
 
-            case EXTENDING_FUTURE:
+            if ( this.isLunarExtremeFound() ) {
 
-                this.startCounting();
+                log.trace("Lunar extreme found in extension cache - nothing to extend");
+                return CompletableFuture.completedFuture(null);
+            }
 
-                break;
+            return this.probeDatesUntilLunarExtreme()
+                    .thenComposeAsync(probed -> {
 
-            case COUNTING:
+                        this.extend(probed);
 
-                this.onFinished();
+                        return CompletableFuture.allOf( this.jobs.toArray( new CompletableFuture<?>[0] ) );
 
-                break;
-        }
-    }
+                    }, executor)
+                    .thenComposeAsync(nothing -> {
 
-    /** Saves calculation results and clears list of calculation jobs. */
-    private void onGenerationFinished() {
+                        this.onExtensionBundleFinished();
 
-        this.log.trace("######## onGenerationFinished() ########");
+                        return this.extendUntilLunarExtremeFound(executor);
+
+                    }, executor);
+        }
 
-        // shut down, because the progress listener of this class only works if a executor is active,
-        // to prevent state changes when nothing is done
-        this.executor.shutdown();
+        /** Starts calculation threads for all days until the probed lunar extreme - reusing the probed visibility */
+        private void extend(final Map<LocalDate, Double> probed) {
 
-        for (Future<Day> job : this.activeCalculations) {
-            try {
-                final Day result = job.get();
+            log.trace("######## extend() - {} days {} ########", probed.size(), this.isPast ? "to past" : "to future");
 
-                this.days.insert(result);
-                this.newlyGenerated.add(result);
-            }
-            catch (Exception e) {
-                this.log.error("Error calculating day", e);
+            for (Map.Entry<LocalDate, Double> entry : probed.entrySet()) {
+                this.jobs.add( CalendarGenerator.this.startDayCreationThread(entry.getKey(), entry.getValue()) );
             }
         }
 
-        this.activeCalculations.clear();
+        /**
+         * Probes the lunar visibility of all dates from the edge of the cache until the predicted extreme plus
+         * {@link #PREDICTION_MARGIN_DAYS} - each as a job of its own, so they are calculated at the same time. Dates before the
+         * predicted extreme are probed as well, since an earlier extreme must not be skipped and the visibility of days kept is
+         * reused anyway.
+         * @return a future completing with the dates up to the one after the first extreme found, which is needed to recognize it,
+         * mapped to their visibility - or with all dates probed, if the prediction was too short
+         */
+        private CompletableFuture<Map<LocalDate, Double>> probeDatesUntilLunarExtreme() {
 
-        this.updateLunarPhases( this.days.allAsList() );
-    }
+            final Day edge = this.isPast ? this.cache.first() : this.cache.last();
+            final Day beforeEdge = this.isPast ? this.cache.higher(edge) : this.cache.lower(edge);
 
+            final double visibilityAtEdge = edge.getPlanetaryData().getLunarVisibility();
 
-    /** STEP 2a: Prepare extending */
-    void startExtending(boolean extendPast) {
+            final CompletableFuture<Double> visibilityBeforeEdge = beforeEdge == null
+                    ? CalendarGenerator.this.startCalculation(
+                            () -> CalendarGenerator.this.calculateLunarVisibility( this.stepInward(edge.getDate()) ) )
+                    : CompletableFuture.completedFuture( beforeEdge.getPlanetaryData().getLunarVisibility() );
 
-        this.log.trace("######## startExtending() ########");
+            return visibilityBeforeEdge.thenCompose(previous -> {
 
-        this.isExtendingPast = extendPast;
+                final int dayCount = Math.min( MAX_DAYS_TO_PROBE,
+                        (int) Math.ceil( predictDaysToLunarExtreme(previous, visibilityAtEdge) ) + PREDICTION_MARGIN_DAYS );
 
-        // We generate portions of days to be able to use multi-threading, save them to this cache and after each
-        // portion is completed, we check if we found an extreme.
-        this.extensionCache = Collections.synchronizedSortedSet( new TreeSet<>() );
+                final List<LocalDate> dates = new ArrayList<>(dayCount);
+                final List<CompletableFuture<Double>> probes = new ArrayList<>(dayCount);
 
-        Day firstDayToCheck, lastDayToCheck;
+                LocalDate date = edge.getDate();
 
-        // Move complete "overhead" to cache to check for extremes outside of expected range - to avoid extending if
-        // it's not needed
-        if (extendPast) {
+                for (int i = 0; i < dayCount; i++) {
 
-            this.progressManager.notifyStateChanged(State.EXTENDING_PAST);
+                    date = this.stepOutward(date);
 
-            firstDayToCheck = this.days.getFirst();
-            lastDayToCheck = new Day( this.calendar.getRangeExpected().getStart() ); // Data isn't relevant here - create a dummy
+                    final LocalDate probedDate = date;
 
-        } else {
-
-            this.progressManager.notifyStateChanged(State.EXTENDING_FUTURE);
+                    dates.add(probedDate);
+                    probes.add( CalendarGenerator.this.startCalculation(
+                            () -> CalendarGenerator.this.calculateLunarVisibility(probedDate) ) );
+                }
 
-            firstDayToCheck = new Day( this.calendar.getRangeExpected().getEnd() );
-            lastDayToCheck = this.days.getLast();
+                return CompletableFuture.allOf( probes.toArray( new CompletableFuture<?>[0] ) )
+                        .thenApply( nothing -> this.keepUntilLunarExtreme(dates, probes, previous, visibilityAtEdge) );
+            });
         }
 
-        final LinkedList<Day> availableDaysOutsideExpectedRange = this.days.of(firstDayToCheck, lastDayToCheck);
-        this.extensionCache.addAll(availableDaysOutsideExpectedRange);
+        /**
+         * @return the probed dates up to the one after the first lunar extreme, mapped to their visibility
+         */
+        private Map<LocalDate, Double> keepUntilLunarExtreme(final List<LocalDate> dates, final List<CompletableFuture<Double>> probes,
+                                                             double previous, double current) {
 
-        if (this.isLunarExtremeInExtensionCache()) { // We already have an extreme - nothing to do
+            final Map<LocalDate, Double> probed = new LinkedHashMap<>();
 
-            log.trace("Lunar extreme found in extensionCache - triggering state change");
-            // We're on main thread and trigger the state change directly
-            this.doStateChange();
+            for (int i = 0; i < dates.size(); i++) {
 
-        } else {
+                final double next = probes.get(i).join();
+                probed.put(dates.get(i), next);
 
-            this.executor = this.createExecutor();
+                if ( LunarPhase.of(previous, current, next).isLunarExtreme() ) {
+                    break;
+                }
 
-            this.enableWaiting();
+                previous = current;
+                current = next;
+            }
 
-            this.extend();
+            return probed;
+        }
 
-            // above we started worker threads so we have to wait for them here to finish
-            this.waitForWorkerThreads();
+        private LocalDate stepOutward(final LocalDate date) {
+            return this.isPast ? date.minusDays(1) : date.plusDays(1);
         }
-    }
 
-    /** STEP 2b: Starts extension threads for for one set of days depending on NUMBER_OF_CORES  */
-    private void extend() {
+        private LocalDate stepInward(final LocalDate date) {
+            return this.isPast ? date.plusDays(1) : date.minusDays(1);
+        }
 
-        this.log.trace("######## extend() ########");
+        /** Saves newly extended days to cache and updates their lunar phases */
+        private void onExtensionBundleFinished() {
 
-        this.isSubmittingJobs = true;
+            log.trace("######## onExtensionBundleFinished() ########");
 
-        if (isExtendingPast) {
+            for (Future<Day> job : this.jobs) {
+                try {
+                    final Day result = job.get();
 
-            for (int i = 1; i <= this.getMaxThreadCount(); i++) {
-                this.startDayCreationThread(this.extensionCache.first().getDate().minusDays(i));
+                    this.cache.add(result);
+                }
+                catch (Exception e) {
+                    log.error("Error calculating day", e);
+                }
             }
 
-        } else {
+            this.jobs.clear();
 
-            for (int i = 1; i <= this.getMaxThreadCount(); i++) {
-                this.startDayCreationThread(this.extensionCache.last().getDate().plusDays(i));
-            }
+            this.lunarPhaseKernel.updateLunarPhases( new ArrayList<>(this.cache) );
         }
 
-        this.isSubmittingJobs = false;
+        private boolean isLunarExtremeFound() {
 
-        // workaround to ensure calculation state is checked after submitting, if all jobs are already finished
-        this.onCalculationProgress(-1);
-    }
+            for (Day day : this.cache) {
+
+                LunarPhase phase = day.getPlanetaryData().getLunarPhase();
+
+                if (phase != null && phase.isLunarExtreme()) {
+                    return true;
+                }
+            }
 
-    /** Save newly extended days to extension cache and checks if further extension is needed */
-    private void onExtensionBundleFinished() {
+            return false;
+        }
 
-        this.log.trace("######## onExtensionBundleFinished() ########");
+        /**
+         * Saves days of cache to newlyGenerated and {@link CalendarData} if not already present in {@link CalendarData}.
+         */
+        void save() {
 
-        this.executor.shutdown();
+            log.trace("######## Extension.save() ########");
 
-        for (Future<Day> job : this.activeCalculations) {
-            try {
-                final Day result = job.get();
+            for (Day day : this.cache) {
 
-                this.extensionCache.add(result);
-            }
-            catch (Exception e) {
-                this.log.error("Error calculating day", e);
+                if ( !CalendarGenerator.this.days.contains(day) ) {
+                    CalendarGenerator.this.newlyGenerated.add(day);
+                    CalendarGenerator.this.insert(day);
+                }
             }
         }
+    }
 
-        this.activeCalculations.clear();
+    /**
+     * <p>Estimates the distance to the next lunar extreme in the direction of two neighbouring days.</p>
+     * <p>The visible fraction of the lunar disk is <code>(1 - cos(angle)) / 2</code>, where angle is the elongation of the Moon,
+     * which grows by 360° each {@link #SYNODIC_MONTH_DAYS}. So the elongation can be derived from the visibility and the trend
+     * tells, whether full moon (180°) or new moon (0°/360°) comes next.</p>
+     * @param visibilityBeforeEdge visibility of the day before the edge day (seen in direction of extension)
+     * @param visibilityAtEdge visibility of the last known day in direction of extension
+     * @return the estimated number of days from edge to the next extreme
+     */
+    static double predictDaysToLunarExtreme(final double visibilityBeforeEdge, final double visibilityAtEdge) {
 
-        this.updateLunarPhases( new LinkedList<>(this.extensionCache) );
+        final double visibility = Math.max( 0, Math.min(1, visibilityAtEdge) );
 
-        if (this.isLunarExtremeInExtensionCache()) {
+        // between 0 (new moon) and PI (full moon)
+        final double elongation = Math.acos(1 - 2 * visibility);
 
-            this.onExtensionFinished();
+        final double distance;
 
+        if (visibilityAtEdge > visibilityBeforeEdge) {
+            distance = Math.PI - elongation;
         } else {
+            distance = elongation;
+        }
+
+        return distance / (2 * Math.PI) * SYNODIC_MONTH_DAYS;
+    }
 
-            this.executor = this.createExecutor();
-            this.extend();
+    /** STEP 3: Starts counting days to lunar extremes */
+    private void startCounting() {
+        // and set daysSinceLast/daysUntilNext only available at CYCLE:
+        this.progressManager.notifyStateChanged(State.COUNTING);
+        this.updateDirtyDays();
+    }
+
+    /** Inserts a day into {@link CalendarData} and remembers it for {@link #updateDirtyDays()}. */
+    private void insert(final Day day) {
+        this.days.insert(day);
+        this.markDirty(day.getDate());
+    }
+
+    private void markDirty(final LocalDate date) {
+
+        if (this.firstDirtyDate == null || date.isBefore(this.firstDirtyDate)) {
+            this.firstDirtyDate = date;
+        }
+
+        if (this.lastDirtyDate == null || date.isAfter(this.lastDirtyDate)) {
+            this.lastDirtyDate = date;
         }
     }
 
     /**
-     * Adds extension cache to newly generated and {@link CalendarData}, counts days to lunar extremes if extension is completely finished
-     * and triggers state change.
+     * Updates lunar phases around the days inserted since the last update and - if scope is CYCLE - the day counters until the
+     * surrounding lunar extremes. Days further away aren't affected by the new days, so the effort doesn't depend on the size of the
+     * calendar.
      */
-    private void onExtensionFinished() {
+    private void updateDirtyDays() {
 
-        this.log.trace("######## onExtensionFinished() ########");
+        if (this.firstDirtyDate == null) {
+            return;
+        }
+
+        // see updateLunarPhasesOfDirtyDays()
+        final Day phaseStart = new Day( this.firstDirtyDate.minusDays(2) );
+        final Day phaseEnd = new Day( this.lastDirtyDate.plusDays(2) );
+
+        if (this.calendar.getScope() == Calendar.Scope.CYCLE) {
 
-        this.saveExtensionCache();
+            // Phases change from the day before the first dirty day to the day after the last one. Searching for extremes starts
+            // beyond, where phases don't change, so counting can be done together with updating phases.
+            final Day start = this.findLunarExtremeOrEnd( new Day(this.firstDirtyDate.minusDays(1)), false );
+            final Day end = this.findLunarExtremeOrEnd( new Day(this.lastDirtyDate.plusDays(1)), true );
 
-        this.continueOnMainThread();
+            this.updateLunarPhasesAndCountDays( this.days.of(start, end), phaseStart.getDate(), phaseEnd.getDate() );
+
+        } else {
+
+            this.lunarPhaseKernel.updateLunarPhases( this.days.of(phaseStart, phaseEnd) );
+        }
+
+        this.firstDirtyDate = null;
+        this.lastDirtyDate = null;
     }
 
     /**
-     * Saves days of extensionCache to newlyGenerated and {@link CalendarData }if not already present in {@link CalendarData}.
+     * Updates the lunar phases of dirty days and their neighbors. {@link LunarPhaseKernel#updateLunarPhases(List)} skips the first
+     * and last day, so two days are needed on each side.
      */
-    private void saveExtensionCache() {
-
-        this.log.trace("######## saveExtensionCache() ########");
-
-        for (Day day : this.extensionCache) {
+    private void updateLunarPhasesOfDirtyDays() {
 
-            if ( !this.days.contains(day) ) {
-                this.newlyGenerated.add(day);
-                this.days.insert(day);
-            }
+        if (this.firstDirtyDate != null) {
+            this.lunarPhaseKernel.updateLunarPhases( this.days.of(
+                    new Day(this.firstDirtyDate.minusDays(2)),
+                    new Day(this.lastDirtyDate.plusDays(2)) ) );
         }
     }
 
-    private boolean isLunarExtremeInExtensionCache() {
+    /**
+     * @return the next lunar extreme before/after given day or the first/last day of calendar, if there is none. Counting can start
+     * there, because counters are reset at lunar extremes.
+     */
+    private Day findLunarExtremeOrEnd(final Day day, final boolean isDirectionForward) {
+
+        Day current = isDirectionForward ? this.days.higher(day) : this.days.lower(day);
 
-        this.log.trace("######## isLunarExtremeInExtensionCache() ########");
+        if (current == null) {
+            return day;
+        }
 
-        for (Day day : this.extensionCache) {
+        while ( current.getPlanetaryData().getLunarPhase() == null || !current.getPlanetaryData().getLunarPhase().isLunarExtreme() ) {
 
-            LunarPhase phase = day.getPlanetaryData().getLunarPhase();
+            final Day next = isDirectionForward ? this.days.higher(current) : this.days.lower(current);
 
-            if (phase != null && phase.isLunarExtreme()) {
-                return true;
+            if (next == null) {
+                return current;
             }
+
+            current = next;
         }
 
-        return false;
-    }
-
-    /** STEP 3: Starts counting days to lunar extremes */
-    private void startCounting() {
-        // and set daysSinceLast/daysUntilNext only available at CYCLE:
-        this.progressManager.notifyStateChanged(State.COUNTING);
-        this.countDaysToLunarExtremesInBothDirections();
+        return current;
     }
 
     /** FINAL STEP: Notify {@link ProgressManager} */
@@ -462,126 +722,131 @@ public class CalendarGenerator implements ProgressListener {
 
         log.trace("onFinished: notifying listeners");
 
+        this.calendar.publishSnapshot();
+
         this.progressManager.notifyStateChanged(State.FINISHED);
     }
 
     /**
      * This method contains logic to start a calculation thread for a {@link Day}.
+     * @param lunarVisibility the visibility already probed for this date or {@link Double#NaN}
+     * @return the job, which completes with the {@link Day} or null, if calculation failed
      */
-    private void startDayCreationThread(final LocalDate date) {
+    private CompletableFuture<Day> startDayCreationThread(final LocalDate date, final double lunarVisibility) {
 
-        final CompletableFuture<Day> result = CompletableFuture.supplyAsync(() -> {
+        final CompletableFuture<Day> job = this.startCalculation(() -> {
 			CalendarGenerator.this.log.trace( " ++++++++ Starting calculation for {}", date );
 
-            Thread.currentThread().setPriority(threadPriority);
-
-            final Day day = CalendarGenerator.this.createCalculatedDay(date);
+            final Day day = CalendarGenerator.this.createCalculatedDay(date, lunarVisibility);
 
 			CalendarGenerator.this.log.trace( " -------- Calculation finished for {}",
                     date );
 
             return day;
-        }, this.executor).exceptionally(throwable -> {
+        }).exceptionally(throwable -> {
             log.error( throwable.getMessage() );
             return null;
         });
 
-        result.thenAccept( day -> CalendarGenerator.this.getProgressManager().notifyDayCreated());
-
-        this.activeCalculations.add(result);
-    }
+        // Progress is part of the job, so waiting for a job also means waiting for its listeners being notified
+        final CompletableFuture<Day> result = job.thenApply( day -> {
+            CalendarGenerator.this.getProgressManager().notifyDayCreated();
+            return day;
+        });
 
-    /**
-     * Responsible for raw Generation of a {@link Day}. Used for testing purposes to override and stub
-     * calculation.
-     */
-    Day createCalculatedDay(final LocalDate date) {
-        return Day.calculateFor( calendar.getLocationProvider(), date );
+        return result;
     }
 
     /**
-     * Walks through the whole list of days and sets
-     * {@link PlanetaryDayData#setDaysSinceLastMaxPhase(int)} and
-     * {@link PlanetaryDayData#setDaysUntilNextMaxPhase(int)}. Doesn't skip
-     * already calculated days, because there would be no significant benefit
+     * Runs a calculation on {@link #executor} at {@link #threadPriority} - holding one of {@link #CPU_PERMITS}, if it runs on a
+     * virtual thread.
      */
-    private void countDaysToLunarExtremesInBothDirections() {
-
-        LinkedList<Day> days = this.days.allAsList();
+    private <T> CompletableFuture<T> startCalculation(final Supplier<T> calculation) {
 
-        int counter = PlanetaryDayData.DAY_COUNT_NOT_CALCULATED;
+        final boolean needsCpuPermit = this.isExecutorVirtual;
 
-        ListIterator<Day> iterator = days.listIterator();
+        return CompletableFuture.supplyAsync(() -> {
 
-        while (iterator.hasNext()) {
+            // Threads are shared, so priority is only changed while calculating
+            final Thread thread = Thread.currentThread();
+            final int originalPriority = thread.getPriority();
+            thread.setPriority(threadPriority);
 
-            Day day = iterator.next();
-
-            counter = incrementDayCount(counter, day);
-
-            day.getPlanetaryData().setDaysSinceLastMaxPhase(counter);
-        }
+            if (needsCpuPermit) {
+                CPU_PERMITS.acquireUninterruptibly();
+            }
 
-        counter = PlanetaryDayData.DAY_COUNT_NOT_CALCULATED;
-        iterator = days.listIterator( days.size() );
+            try {
+                return calculation.get();
+            } finally {
+                thread.setPriority(originalPriority);
 
-        while (iterator.hasPrevious()) {
+                if (needsCpuPermit) {
+                    CPU_PERMITS.release();
+                }
+            }
+        }, this.executor);
+    }
 
-            Day day = iterator.previous();
+    /**
+     * Responsible for raw Generation of a {@link Day}. Used for testing purposes to override and stub
+     * calculation.
+     * @param lunarVisibility the visibility already probed by {@link #calculateLunarVisibility(LocalDate)} - reused instead of
+     *                        calculating it again - or {@link Double#NaN}
+     */
+    Day createCalculatedDay(final LocalDate date, final double lunarVisibility) {
 
-            counter = incrementDayCount(counter, day);
+        final DayCache cache = calendar.getDayCache();
+        final LocationProvider locationProvider = calendar.getLocationProvider();
+        final LunarEphemeris ephemeris = calendar.getLunarEphemeris();
 
-            day.getPlanetaryData().setDaysUntilNextMaxPhase(counter);
+        // interpolated days differ slightly from calculated ones, but the cache doesn't know how a day was created
+        if (cache == null || ephemeris != null) {
+            return new Day( date, PlanetaryDayData.calculateFor(
+                    date, locationProvider, calendar.isRiseSetCalculatedLazily(), ephemeris, lunarVisibility ) );
         }
 
-        // We're on main thread and call this directly
-        this.doStateChange();
-    }
-
-    private int incrementDayCount(int counter, Day day) {
+        final DayStorableDataSet cachedData = cache.get(locationProvider, date);
 
-		this.log.debug( "Looking for extreme: {} - {}(count: {})", day.getDate(), day.getPlanetaryData().getLunarPhase(), counter );
-
-        if (counter < PlanetaryDayData.DAY_COUNT_NOT_CALCULATED) {
-            counter ++;
+        if (cachedData != null) {
+            // Day-objects get modified (lunar phase, day counters), so each Calendar needs its own
+            return Day.importFrom(cachedData);
         }
 
-        if (day.getPlanetaryData().getLunarPhase() != null && day.getPlanetaryData().getLunarPhase().isLunarExtreme()) {
-            counter = 0;
-        }
+        final Day day = new Day( date, PlanetaryDayData.calculateFor(date, locationProvider, false, null, lunarVisibility) );
+        cache.put( locationProvider, new DayStorableDataSetPojo(day) );
 
-        return counter;
+        return day;
     }
 
-    /** Walks through all days and updates lunar phases. List will be modified! */
-    private void updateLunarPhases(LinkedList<Day> days) {
-
-        this.log.trace("######## updateLunarPhases() ########");
+    /**
+     * Calculates only the lunar visibility of a date, needed to find lunar extremes when extending. Used for testing purposes to
+     * override and stub calculation.
+     */
+    double calculateLunarVisibility(final LocalDate date) {
+        return PlanetaryDayData.calculateLunarVisibilityFor( date, calendar.getLocationProvider(), calendar.getLunarEphemeris() );
+    }
 
-        if (days.size() < 3) {
+    /**
+     * Updates lunar phases of the days between phaseStart and phaseEnd (except the first and last one, like
+     * {@link LunarPhaseKernel#updateLunarPhases(List)} would do) and the day counters of all days. The list must start and end at a
+     * lunar extreme or the end of the calendar and contain all days between phaseStart and phaseEnd.
+     */
+    private void updateLunarPhasesAndCountDays(final List<Day> days, final LocalDate phaseStart, final LocalDate phaseEnd) {
 
-            this.log.trace("      => Size < 3, returning");
-            return;
+        int phaseFrom = 1;
+        while (phaseFrom < days.size() - 1 && days.get(phaseFrom - 1).getDate().isBefore(phaseStart)) {
+            phaseFrom++;
         }
 
-        Day 	previous = days.pollFirst(),
-                current = days.pollFirst(),
-                next = days.pollFirst();
-
-        do {
-
-            current.getPlanetaryData().setLunarPhase( LunarPhase.of(previous, current, next) );
-
-			this.log.debug( "      ({}, {}, {}) => {}", previous.getDate(), current.getDate(), next.getDate(), current.getPlanetaryData().getLunarPhase() );
-
-            previous = current;
-            current = next;
-            next = days.pollFirst();
+        int phaseTo = days.size() - 2;
+        while (phaseTo > 0 && days.get(phaseTo + 1).getDate().isAfter(phaseEnd)) {
+            phaseTo--;
+        }
 
-        } while (next != null);
+        this.lunarPhaseKernel.updateLunarPhasesAndCountDays(days, phaseFrom, phaseTo);
     }
 
-
     /**
      * Returns a {@link DateRange} for {@link #startGeneration()} ()} to be able to calculate enough days to satisfy expected range and
      * scope.
@@ -603,15 +868,89 @@ public class CalendarGenerator implements ProgressListener {
         }
     }
 
-    private ThreadPoolExecutor createExecutor() {
+    /** Limits the calculation jobs of this instance to {@link #getMaxThreadCount()} threads of the shared pool. */
+    private BoundedExecutor createExecutor() {
 
-        final BlockingQueue<Runnable> calculatorQueue = new LinkedBlockingQueue<>();
-        final int threadCount = this.getMaxThreadCount();
+        final ExecutorService sharedExecutor = getSharedExecutor();
+        this.isExecutorVirtual = sharedExecutor == virtualThreadExecutor;
 
-        return new ThreadPoolExecutor(
-                threadCount, threadCount,
-                1, TimeUnit.SECONDS,
-                calculatorQueue);
+        return new BoundedExecutor( sharedExecutor, this.getMaxThreadCount() );
+    }
+
+    /**
+     * Returns the {@link ExecutorService} set via {@link #setSharedExecutor(ExecutorService)}, the virtual thread executor if
+     * enabled via {@link #setVirtualThreadsEnabled(boolean)} or a fixed thread pool containing one daemon thread for each processor
+     * core.
+     */
+    static synchronized ExecutorService getSharedExecutor() {
+
+        if (sharedExecutor != null) {
+            return sharedExecutor;
+        }
+
+        if (virtualThreadExecutor != null) {
+            return virtualThreadExecutor;
+        }
+
+        if (libraryPool == null) {
+
+            final AtomicInteger threadCount = new AtomicInteger();
+
+            final ThreadFactory threadFactory = runnable -> {
+                final Thread thread = new Thread(runnable, "libZodiac-calculation-" + threadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+
+            libraryPool = Executors.newFixedThreadPool(NUMBER_OF_CORES, threadFactory);
+        }
+
+        return libraryPool;
+    }
+
+    /**
+     * Allows using an application wide {@link ExecutorService} for calculations of all {@link Calendar}s instead of the pool
+     * managed by this library. Each generator still doesn't run more than {@link #getMaxThreadCount()} jobs at the same time.
+     * Should be set before starting the first generation - generations already in progress keep using the old one.
+     * @param executorService the {@link ExecutorService} to use or null to use the pool of this library
+     */
+    public static synchronized void setSharedExecutor(final ExecutorService executorService) {
+        sharedExecutor = executorService;
+    }
+
+    /**
+     * <p>Opt-in to run calculations on virtual threads. Since steps between calculations run on the thread finishing the last job
+     * (or the executor given to {@link Calendar#generateAsync(java.util.concurrent.Executor)}), waiting, extending and listener
+     * callbacks then also don't occupy platform threads. To not starve other virtual threads, at most one calculation per processor
+     * core runs at the same time.</p>
+     * <p>This library targets Java 17 and Android, so virtual threads are looked up at runtime: If they aren't supported (before
+     * Java 21 and on Android), the platform thread pool is kept. An {@link ExecutorService} set via
+     * {@link #setSharedExecutor(ExecutorService)} takes precedence.</p>
+     * @param enabled true to use virtual threads, false to use the platform thread pool again
+     * @return true, if virtual threads are used from now on
+     */
+    public static synchronized boolean setVirtualThreadsEnabled(final boolean enabled) {
+
+        if (!enabled) {
+
+            virtualThreadExecutor = null;
+
+        } else if (virtualThreadExecutor == null) {
+
+            try {
+                virtualThreadExecutor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+            } catch (ReflectiveOperationException e) {
+                LoggerFactory.getLogger(CalendarGenerator.class)
+                        .warn( "Virtual threads aren't supported by this runtime - keeping platform threads" );
+            }
+        }
+
+        return virtualThreadExecutor != null;
+    }
+
+    /** @return true if virtual threads are enabled and supported, see {@link #setVirtualThreadsEnabled(boolean)}. */
+    public static boolean isUsingVirtualThreads() {
+        return virtualThreadExecutor != null;
     }
 
     ProgressManager getProgressManager() {
@@ -629,17 +968,17 @@ public class CalendarGenerator implements ProgressListener {
     }
 
     /** Returns all days newly generated since last call of #startGeneration. */
-    LinkedList<Day> getNewlyGenerated() {
+    List<Day> getNewlyGenerated() {
 
         if (!this.areAllCalculationsDone()) {
             throw new ConcurrentModificationException("Tried to fetch days before calculation finished");
         }
 
-        return new LinkedList<>(newlyGenerated);
+        return new ArrayList<>(newlyGenerated);
     }
 
     /**
-     * @return maximal allowed count of threads, by default number of processor cores
+     * @return maximal count of calculations this instance runs at the same time, by default number of processor cores
      */
     public int getMaxThreadCount() {
 
@@ -668,9 +1007,4 @@ public class CalendarGenerator implements ProgressListener {
     public void setThreadPriority(int threadPriority) {
         this.threadPriority = threadPriority;
     }
-
-    /** Needed for tests to be able shut down executor externally. */
-    ThreadPoolExecutor getExecutor() {
-        return executor;
-    }
 }
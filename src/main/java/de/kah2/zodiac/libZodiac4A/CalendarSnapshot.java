@@ -0,0 +1,157 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import de.kah2.zodiac.libZodiac4A.planetary.PlanetaryDayData;
+
+/**
+ * <p>The days a {@link Calendar} contained after the last finished import, generation or removal of overhead.</p>
+ * <p>Unlike {@link Calendar#getAllDays()} it can be read without locking while the {@link Calendar} is generating or importing
+ * new data - neither the set of days contained nor their values ever change, see {@link Calendar#getSnapshot()}.</p>
+ * <p>NOTE: Therefore the {@link Day}-objects are copies of the ones contained by the {@link Calendar}. Days whose values didn't
+ * change since the last snapshot are shared with it, so only updated and new days need to be copied.</p>
+ */
+public class CalendarSnapshot {
+
+	static final CalendarSnapshot EMPTY = new CalendarSnapshot(0, new Day[0], new Day[0], Calendar.Scope.DAY, true);
+
+	private final long version;
+
+	// sorted by date - copies of sources
+	private final Day[] days;
+
+	// the days of the Calendar the copies were made of, to know which ones can be reused by the next snapshot
+	private final Day[] sources;
+
+	private final Calendar.Scope scope;
+
+	// true if days have no gaps, which allows calculating indices
+	private final boolean isComplete;
+
+	private CalendarSnapshot(final long version, final Day[] days, final Day[] sources, final Calendar.Scope scope,
+							 final boolean isComplete) {
+		this.version = version;
+		this.days = days;
+		this.sources = sources;
+		this.scope = scope;
+		this.isComplete = isComplete;
+	}
+
+	/**
+	 * Creates the snapshot following this one.
+	 * @param sources the days currently contained by the {@link Calendar}, sorted by date
+	 * @return a snapshot containing copies of sources - the copies of this snapshot are reused, if their values are still current
+	 */
+	CalendarSnapshot next(final Day[] sources, final Calendar.Scope scope, final boolean isComplete) {
+
+		final Day[] copies = new Day[sources.length];
+
+		for (int i = 0; i < sources.length; i++) {
+
+			final Day copy = this.getCopyIfCurrent(sources[i]);
+
+			copies[i] = copy != null ? copy : sources[i].copy();
+		}
+
+		return new CalendarSnapshot(this.version + 1, copies, sources, scope, isComplete);
+	}
+
+	/**
+	 * @return the copy of given day, if it was made of the same object and the values depending on neighbor days haven't been
+	 * updated since - other values are never changed by the {@link Calendar}. Otherwise null.
+	 */
+	private Day getCopyIfCurrent(final Day source) {
+
+		final int index = this.indexOf(source.getDate());
+
+		if (index < 0 || this.sources[index] != source) {
+			return null;
+		}
+
+		final PlanetaryDayData copied = this.days[index].getPlanetaryData();
+		final PlanetaryDayData current = source.getPlanetaryData();
+
+		final boolean isCurrent = copied.getLunarPhase() == current.getLunarPhase()
+				&& copied.getDaysSinceLastMaxPhase() == current.getDaysSinceLastMaxPhase()
+				&& copied.getDaysUntilNextMaxPhase() == current.getDaysUntilNextMaxPhase();
+
+		return isCurrent ? this.days[index] : null;
+	}
+
+	/**
+	 * @return a number increasing with every snapshot published by the {@link Calendar}.
+	 */
+	public long getVersion() {
+		return this.version;
+	}
+
+	/**
+	 * @param date the date of the Day to return
+	 * @return The requested {@link Day} or null, if it wasn't contained when this snapshot was taken.
+	 */
+	public Day get(final LocalDate date) {
+
+		final int index = this.indexOf(date);
+
+		return index < 0 ? null : this.days[index];
+	}
+
+	/** @return the index of given date in {@link #days} or a negative value, if it isn't contained. */
+	private int indexOf(final LocalDate date) {
+
+		if (this.days.length == 0) {
+			return -1;
+		}
+
+		if (this.isComplete) {
+
+			final long offset = date.toEpochDay() - this.days[0].getDate().toEpochDay();
+			return offset < 0 || offset >= this.days.length ? -1 : (int) offset;
+
+		} else {
+			return Arrays.binarySearch(this.days, new Day(date));
+		}
+	}
+
+	/**
+	 * @return all days contained as unmodifiable list - if no days are available, an empty list is returned.
+	 */
+	public List<Day> getAllDays() {
+		return Collections.unmodifiableList( Arrays.asList(this.days) );
+	}
+
+	/**
+	 * Does the same as {@link Calendar#getValidDays()} for the days of this snapshot.
+	 * @return All days satisfying scope requirements as unmodifiable list or null, if data contains gaps.
+	 */
+	public List<Day> getValidDays() {
+
+		if (!this.isComplete) {
+			return null;
+		}
+
+		final List<Day> all = this.getAllDays();
+
+		if (this.scope == Calendar.Scope.DAY || all.isEmpty()) {
+			return all;
+		}
+
+		// first and last day have no lunar phase
+		return all.size() < 3 ? Collections.emptyList() : all.subList(1, all.size() - 1);
+	}
+
+	/**
+	 * @return true, if the snapshot contains all days of given range.
+	 */
+	public boolean isComplete(final DateRange range) {
+
+		final int start = this.indexOf(range.getStart());
+		final int end = this.indexOf(range.getEnd());
+
+		// days are sorted and unique, so there's no gap if the number of days between matches
+		return start >= 0 && end >= 0 && end - start == range.size() - 1;
+	}
+}
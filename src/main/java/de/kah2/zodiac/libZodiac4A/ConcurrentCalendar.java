@@ -0,0 +1,228 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Function;
+
+import de.kah2.zodiac.libZodiac4A.planetary.PlanetaryDayData;
+
+/**
+ * <p>A thread safe variant of {@link Calendar} meant to be shared by many threads, e.g. one instance per location for all requests
+ * of a server.</p>
+ * <ul>
+ *     <li>{@link #get(LocalDate)} and the other read methods never lock or throw a
+ *     {@link java.util.ConcurrentModificationException}.</li>
+ *     <li>{@link #importDays(List)} and {@link #generate(DateRange)} may be called in parallel: each call works on a private
+ *     {@link Calendar} containing only the affected range and the days around it and merges the results afterwards.</li>
+ * </ul>
+ * <p>Days contained are never modified after they were added - if a later generation completes e.g. the day counters of a
+ * contained day, the {@link Day}-object gets replaced.</p>
+ */
+public class ConcurrentCalendar {
+
+	/**
+	 * Existing days within this number of days around a range to generate or import are passed to the private {@link Calendar}, so
+	 * lunar phases and day counters at the edges of the range can be calculated and lunar extremes (occurring about every 15 days)
+	 * needn't be calculated again when the scope is {@link Calendar.Scope#CYCLE}.
+	 */
+	private static final int DAYS_TO_REUSE_AROUND_RANGE = 16;
+
+	private final Calendar.Scope scope;
+
+	private final ConcurrentSkipListMap<LocalDate, Day> days = new ConcurrentSkipListMap<>();
+
+	// creates the private calendars - replaceable for testing
+	private final Function<DateRange, Calendar> calendarFactory;
+
+	/**
+	 * Creates an empty {@link ConcurrentCalendar}.
+	 * @param scope the {@link Calendar.Scope} used for all generations
+	 * @param locationProvider The {@link LocationProvider} that is needed for calculations
+	 */
+	public ConcurrentCalendar(final Calendar.Scope scope, final LocationProvider locationProvider) {
+		this(scope, range -> new Calendar(range, scope, locationProvider));
+	}
+
+	/** Needed for tests to allow stubbing the {@link Calendar}s used for generation. */
+	ConcurrentCalendar(final Calendar.Scope scope, final Function<DateRange, Calendar> calendarFactory) {
+		this.scope = scope;
+		this.calendarFactory = calendarFactory;
+	}
+
+	/**
+	 * Imports already calculated days - see {@link Calendar#importDays(List)}. Can be called in parallel to other imports and
+	 * generations. Lunar phases and day counters are calculated together with the contained days around them, so days imported
+	 * by separate calls fit together.
+	 * @param storedDays a {@link List} of {@link DayStorableDataSet}-objects of already calculated days - in any order.
+	 */
+	public void importDays(final List<? extends DayStorableDataSet> storedDays) {
+
+		if (storedDays.isEmpty()) {
+			return;
+		}
+
+		final Set<LocalDate> storedDates = new HashSet<>();
+
+		LocalDate first = storedDays.get(0).getDate();
+		LocalDate last = first;
+
+		for (DayStorableDataSet storedDay : storedDays) {
+
+			final LocalDate date = storedDay.getDate();
+			storedDates.add(date);
+
+			if (date.isBefore(first)) {
+				first = date;
+			} else if (date.isAfter(last)) {
+				last = date;
+			}
+		}
+
+		final DateRange range = new DateRange(first, last);
+		final Calendar calendar = this.calendarFactory.apply(range);
+
+		final List<DayStorableDataSet> daysToImport = new ArrayList<>();
+
+		// stored days replace contained ones
+		for (DayStorableDataSet existingDay : this.getDaysAround(range)) {
+			if (!storedDates.contains( existingDay.getDate() )) {
+				daysToImport.add(existingDay);
+			}
+		}
+
+		daysToImport.addAll(storedDays);
+
+		calendar.importDays(daysToImport);
+
+		this.merge( calendar.getAllDays() );
+	}
+
+	/**
+	 * Calculates the days missing in given range (and around it, regarding the {@link Calendar.Scope}) and blocks until they are
+	 * available. Can be called in parallel to other imports and generations - overlapping ranges are allowed, but the days
+	 * contained by both get calculated twice.
+	 * @param range the range which shall be contained afterwards
+	 * @return the days, which were calculated by this call
+	 */
+	public List<Day> generate(final DateRange range) {
+
+		final Calendar calendar = this.calendarFactory.apply(range);
+
+		calendar.importDays( this.getDaysAround(range) );
+		calendar.startGeneration();
+
+		this.merge( calendar.getAllDays() );
+
+		return calendar.getNewlyGenerated();
+	}
+
+	/**
+	 * @return the contained days within {@link #DAYS_TO_REUSE_AROUND_RANGE} around given range, ready to be imported by a private
+	 * {@link Calendar}.
+	 */
+	private List<DayStorableDataSet> getDaysAround(final DateRange range) {
+
+		final List<DayStorableDataSet> existingDays = new ArrayList<>();
+
+		for (Day day : this.days.subMap(
+				range.getStart().minusDays(DAYS_TO_REUSE_AROUND_RANGE), true,
+				range.getEnd().plusDays(DAYS_TO_REUSE_AROUND_RANGE), true).values()) {
+
+			existingDays.add( new DayStorableDataSetPojo(day) );
+		}
+
+		return existingDays;
+	}
+
+	/**
+	 * Adds days of a private {@link Calendar}. Contained days are replaced, unless they have more complete data than the new ones -
+	 * so e.g. days imported again replace the old ones, but days at the edges of a private {@link Calendar}, which miss neighbors
+	 * there, don't replace complete ones.
+	 */
+	private void merge(final List<Day> calculatedDays) {
+
+		for (Day day : calculatedDays) {
+
+			this.days.merge( day.getDate(), day,
+					(contained, calculated) -> hasMoreData(contained, calculated) ? contained : calculated );
+		}
+	}
+
+	private static boolean hasMoreData(final Day day, final Day other) {
+		return countCalculatedValues(day) > countCalculatedValues(other);
+	}
+
+	private static int countCalculatedValues(final Day day) {
+
+		int count = 0;
+
+		if (day.getPlanetaryData().getLunarPhase() != null) {
+			count++;
+		}
+
+		if (day.getPlanetaryData().getDaysSinceLastMaxPhase() != PlanetaryDayData.DAY_COUNT_NOT_CALCULATED) {
+			count++;
+		}
+
+		if (day.getPlanetaryData().getDaysUntilNextMaxPhase() != PlanetaryDayData.DAY_COUNT_NOT_CALCULATED) {
+			count++;
+		}
+
+		return count;
+	}
+
+	/**
+	 * @param date the date of the Day to return
+	 * @return The requested {@link Day} or null, if it isn't contained.
+	 */
+	public Day get(final LocalDate date) {
+		return this.days.get(date);
+	}
+
+	/**
+	 * @param range the range of days to return
+	 * @return all contained days within given range - might contain gaps.
+	 */
+	public List<Day> getDays(final DateRange range) {
+		return new ArrayList<>( this.subMap(range).values() );
+	}
+
+	/**
+	 * @return true, if all days of given range are contained.
+	 */
+	public boolean isComplete(final DateRange range) {
+
+		LocalDate expected = range.getStart();
+
+		for (Map.Entry<LocalDate, Day> entry : this.subMap(range).entrySet()) {
+
+			if (!entry.getKey().isEqual(expected)) {
+				return false;
+			}
+
+			expected = expected.plusDays(1);
+		}
+
+		return expected.isAfter(range.getEnd());
+	}
+
+	private ConcurrentNavigableMap<LocalDate, Day> subMap(final DateRange range) {
+		return this.days.subMap(range.getStart(), true, range.getEnd(), true);
+	}
+
+	/** @return the number of contained days. */
+	public int size() {
+		return this.days.size();
+	}
+
+	/** @return  the {@link Calendar.Scope} of this instance. */
+	public Calendar.Scope getScope() {
+		return this.scope;
+	}
+}
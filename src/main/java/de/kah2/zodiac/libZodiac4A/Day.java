@@ -2,6 +2,7 @@ package de.kah2.zodiac.libZodiac4A;
 
 import java.time.LocalDate;
 
+import de.kah2.zodiac.libZodiac4A.planetary.LunarEphemeris;
 import de.kah2.zodiac.libZodiac4A.planetary.PlanetaryDayData;
 import de.kah2.zodiac.libZodiac4A.zodiac.ZodiacDayData;
 
@@ -20,7 +21,7 @@ public class Day implements Comparable<Day>{
 	private final PlanetaryDayData planetaryData;
 	private final ZodiacDayData zodiacData;
 
-	/** This constructor is used to create dummy objects for {@link CalendarData#getMissingDates(DateRange)} */
+	/** This constructor is used to create dummy objects e.g. for {@link CalendarData#of(Day, Day)} */
 	Day(final LocalDate date) {
 		this.date = date;
 		this.planetaryData = null;
@@ -37,6 +38,12 @@ public class Day implements Comparable<Day>{
 		this.zodiacData = new ZodiacDayData(this.planetaryData);
 	}
 
+	private Day(final LocalDate date, final PlanetaryDayData planetaryData, final ZodiacDayData zodiacData) {
+		this.date = date;
+		this.planetaryData = planetaryData;
+		this.zodiacData = zodiacData;
+	}
+
 	/**
 	 * Creates a Day object and calculates all data.
 	 * 
@@ -52,6 +59,45 @@ public class Day implements Comparable<Day>{
 		return new Day(date, PlanetaryDayData.calculateFor(date, locationProvider));
 	}
 
+	/**
+	 * Creates a Day object and calculates all data - rise and set times optionally only when they are requested.
+	 *
+	 * @param locationProvider
+	 *            provides information about observer position and time zone
+	 *            needed for calculation of rise and set times.
+	 * @param date
+	 *            the date of the Day to generate
+	 * @param calculateRiseSetLazily
+	 *            see {@link PlanetaryDayData#calculateFor(LocalDate, LocationProvider, boolean)}
+	 * @return the resulting {@link Day}-object
+	 */
+	public static Day calculateFor(final LocationProvider locationProvider, final LocalDate date,
+								   final boolean calculateRiseSetLazily) {
+
+		return new Day(date, PlanetaryDayData.calculateFor(date, locationProvider, calculateRiseSetLazily));
+	}
+
+	/**
+	 * Creates a Day object and calculates all data - rise and set times optionally only when they are requested and lunar data
+	 * optionally interpolated.
+	 *
+	 * @param locationProvider
+	 *            provides information about observer position and time zone
+	 *            needed for calculation of rise and set times.
+	 * @param date
+	 *            the date of the Day to generate
+	 * @param calculateRiseSetLazily
+	 *            see {@link PlanetaryDayData#calculateFor(LocalDate, LocationProvider, boolean)}
+	 * @param ephemeris
+	 *            see {@link PlanetaryDayData#calculateFor(LocalDate, LocationProvider, boolean, LunarEphemeris)}
+	 * @return the resulting {@link Day}-object
+	 */
+	public static Day calculateFor(final LocationProvider locationProvider, final LocalDate date,
+								   final boolean calculateRiseSetLazily, final LunarEphemeris ephemeris) {
+
+		return new Day(date, PlanetaryDayData.calculateFor(date, locationProvider, calculateRiseSetLazily, ephemeris));
+	}
+
 	/**
 	 * Creates a Day object, imports planetary data and calculates Zodiac data.
 	 * 
@@ -64,6 +110,14 @@ public class Day implements Comparable<Day>{
 		return new Day(storedData.getDate(), PlanetaryDayData.importFrom(storedData));
 	}
 
+	/**
+	 * Needed for {@link CalendarSnapshot}s, whose days must not change while the {@link Calendar} updates its own ones.
+	 * @return a new {@link Day} containing a copy of the {@link PlanetaryDayData} - {@link ZodiacDayData} is immutable, so it's shared.
+	 */
+	Day copy() {
+		return new Day(this.date, this.planetaryData.copy(), this.zodiacData);
+	}
+
 	/**
 	 * @return {@link ZodiacDayData} containing basic zodiac calendar data
 	 *         without interpretations.
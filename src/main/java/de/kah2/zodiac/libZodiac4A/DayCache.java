@@ -0,0 +1,26 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import java.time.LocalDate;
+
+/**
+ * <p>A cache for calculated days, which can be shared by many {@link Calendar}s, so days of locations used by many users get
+ * calculated only once - see {@link Calendar#setDayCache(DayCache)}.</p>
+ * <p>Implementations must be thread safe and must not modify the cached data.</p>
+ * @see LruDayCache
+ */
+public interface DayCache {
+
+	/**
+	 * @param locationProvider the location, for which the day was calculated
+	 * @param date the date of the day
+	 * @return the cached data or null, if it isn't contained
+	 */
+	DayStorableDataSet get(LocationProvider locationProvider, LocalDate date);
+
+	/**
+	 * Adds the data of a calculated day.
+	 * @param locationProvider the location, for which the day was calculated
+	 * @param data the calculated data
+	 */
+	void put(LocationProvider locationProvider, DayStorableDataSet data);
+}
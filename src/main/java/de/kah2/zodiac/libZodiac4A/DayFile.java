@@ -0,0 +1,235 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractList;
+import java.util.List;
+import java.util.RandomAccess;
+
+import de.kah2.zodiac.libZodiac4A.planetary.RiseSet;
+
+/**
+ * <p>Stores {@link DayStorableDataSet}s in a binary file with fixed record size, which can be loaded without parsing.</p>
+ * <p>{@link #map(Path)} maps the file into memory and returns a list reading its elements directly from the file, so e.g. years of
+ * precalculated days can be passed to {@link Calendar#importDays(List)} without creating intermediate objects.</p>
+ * <p>File layout (big endian): a header containing {@link #MAGIC} and {@link #VERSION} followed by one record per day:</p>
+ * <ul>
+ *     <li>int: epoch day of the date</li>
+ *     <li>4 longs: epoch seconds of solar rise, solar set, lunar rise and lunar set - see {@link RiseSet#of(long, long)} for
+ *     special values</li>
+ *     <li>2 doubles: lunar visibility and lunar longitude</li>
+ * </ul>
+ */
+public class DayFile {
+
+	/** The first bytes of a day file ("ZDAY"). */
+	public static final int MAGIC = 0x5A444159;
+
+	/** The version of the file layout. */
+	public static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 2 * Integer.BYTES;
+
+	private static final int DATE_OFFSET = 0;
+	private static final int SOLAR_RISE_OFFSET = DATE_OFFSET + Integer.BYTES;
+	private static final int SOLAR_SET_OFFSET = SOLAR_RISE_OFFSET + Long.BYTES;
+	private static final int LUNAR_RISE_OFFSET = SOLAR_SET_OFFSET + Long.BYTES;
+	private static final int LUNAR_SET_OFFSET = LUNAR_RISE_OFFSET + Long.BYTES;
+	private static final int LUNAR_VISIBILITY_OFFSET = LUNAR_SET_OFFSET + Long.BYTES;
+	private static final int LUNAR_LONGITUDE_OFFSET = LUNAR_VISIBILITY_OFFSET + Double.BYTES;
+
+	/** The number of bytes per day. */
+	static final int RECORD_SIZE = LUNAR_LONGITUDE_OFFSET + Double.BYTES;
+
+	// number of records written at once
+	private static final int RECORDS_PER_WRITE = 1024;
+
+	private DayFile() {}
+
+	/**
+	 * Writes days to a file - an existing file is replaced.
+	 * @param file the file to write
+	 * @param days the data to write - in chronological order, if the file shall be imported into a {@link Calendar} quickly
+	 * @throws IOException if writing fails
+	 */
+	public static void write(final Path file, final List<? extends DayStorableDataSet> days) throws IOException {
+
+		try (FileChannel channel = FileChannel.open(file,
+				StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+
+			final ByteBuffer buffer = ByteBuffer.allocate( HEADER_SIZE + RECORDS_PER_WRITE * RECORD_SIZE );
+
+			buffer.putInt(MAGIC);
+			buffer.putInt(VERSION);
+
+			for (DayStorableDataSet day : days) {
+
+				if (buffer.remaining() < RECORD_SIZE) {
+					writeFully(channel, buffer);
+				}
+
+				putRecord(buffer, day);
+			}
+
+			writeFully(channel, buffer);
+		}
+	}
+
+	/**
+	 * Writes the days of a {@link Calendar} to a file - an existing file is replaced.
+	 * @param file the file to write
+	 * @param calendar the {@link Calendar} containing the days to write
+	 * @throws IOException if writing fails
+	 */
+	public static void write(final Path file, final Calendar calendar) throws IOException {
+
+		final List<Day> days = calendar.getAllDays();
+
+		write(file, new AbstractList<DayStorableDataSet>() {
+			@Override
+			public DayStorableDataSet get(final int index) {
+				return new DayStorableDataSetPojo( days.get(index) );
+			}
+
+			@Override
+			public int size() {
+				return days.size();
+			}
+		});
+	}
+
+	private static void putRecord(final ByteBuffer buffer, final DayStorableDataSet day) {
+
+		buffer.putInt( Math.toIntExact( day.getDate().toEpochDay() ) );
+
+		putRiseSet(buffer, day.getSolarRiseSet());
+		putRiseSet(buffer, day.getLunarRiseSet());
+
+		buffer.putDouble( day.getLunarVisibility() );
+		buffer.putDouble( day.getLunarLongitude() );
+	}
+
+	private static void putRiseSet(final ByteBuffer buffer, final RiseSet riseSet) {
+
+		if (riseSet == null) {
+			buffer.putLong(RiseSet.NO_RISE_SET);
+			buffer.putLong(RiseSet.NO_RISE_SET);
+		} else {
+			buffer.putLong( riseSet.getRiseEpochSecond() );
+			buffer.putLong( riseSet.getSetEpochSecond() );
+		}
+	}
+
+	private static void writeFully(final FileChannel channel, final ByteBuffer buffer) throws IOException {
+
+		buffer.flip();
+
+		while (buffer.hasRemaining()) {
+			channel.write(buffer);
+		}
+
+		buffer.clear();
+	}
+
+	/**
+	 * Maps a file written by {@link #write(Path, List)} into memory. The file must not be changed while the returned list is in
+	 * use.
+	 * @param file the file to read
+	 * @return an unmodifiable list of the days contained - its elements read their values directly from the mapped file.
+	 * @throws IOException if the file can't be read or isn't a day file of a supported version
+	 */
+	public static List<DayStorableDataSet> map(final Path file) throws IOException {
+
+		final ByteBuffer buffer;
+
+		// the mapping stays valid after closing the channel
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+			buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+
+		if (buffer.limit() < HEADER_SIZE || buffer.getInt(0) != MAGIC) {
+			throw new IOException("Not a day file: " + file);
+		}
+
+		if (buffer.getInt(Integer.BYTES) != VERSION) {
+			throw new IOException("Unsupported version " + buffer.getInt(Integer.BYTES) + " of day file: " + file);
+		}
+
+		if ((buffer.limit() - HEADER_SIZE) % RECORD_SIZE != 0) {
+			throw new IOException("Day file is truncated: " + file);
+		}
+
+		return new MappedDays(buffer);
+	}
+
+	private static class MappedDays extends AbstractList<DayStorableDataSet> implements RandomAccess {
+
+		private final ByteBuffer buffer;
+
+		private final int size;
+
+		MappedDays(final ByteBuffer buffer) {
+			this.buffer = buffer;
+			this.size = (buffer.limit() - HEADER_SIZE) / RECORD_SIZE;
+		}
+
+		@Override
+		public DayStorableDataSet get(final int index) {
+
+			if (index < 0 || index >= this.size) {
+				throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + this.size);
+			}
+
+			return new MappedDay( this.buffer, HEADER_SIZE + index * RECORD_SIZE );
+		}
+
+		@Override
+		public int size() {
+			return this.size;
+		}
+	}
+
+	/** A view of one record - only uses absolute reads, so many views can share one buffer. */
+	private static class MappedDay implements DayStorableDataSet {
+
+		private final ByteBuffer buffer;
+
+		private final int offset;
+
+		MappedDay(final ByteBuffer buffer, final int offset) {
+			this.buffer = buffer;
+			this.offset = offset;
+		}
+
+		@Override
+		public LocalDate getDate() {
+			return LocalDate.ofEpochDay( this.buffer.getInt(this.offset + DATE_OFFSET) );
+		}
+
+		@Override
+		public RiseSet getSolarRiseSet() {
+			return RiseSet.of( this.buffer.getLong(this.offset + SOLAR_RISE_OFFSET),
+					this.buffer.getLong(this.offset + SOLAR_SET_OFFSET) );
+		}
+
+		@Override
+		public RiseSet getLunarRiseSet() {
+			return RiseSet.of( this.buffer.getLong(this.offset + LUNAR_RISE_OFFSET),
+					this.buffer.getLong(this.offset + LUNAR_SET_OFFSET) );
+		}
+
+		@Override
+		public double getLunarVisibility() {
+			return this.buffer.getDouble(this.offset + LUNAR_VISIBILITY_OFFSET);
+		}
+
+		@Override
+		public double getLunarLongitude() {
+			return this.buffer.getDouble(this.offset + LUNAR_LONGITUDE_OFFSET);
+		}
+	}
+}
@@ -0,0 +1,127 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+import de.kah2.zodiac.libZodiac4A.planetary.Position;
+
+/**
+ * <p>A {@link DayCache} containing a limited number of days - if it is full, the least recently used day is removed.</p>
+ * <p>Days are identified by time zone, date and observer position. Positions are rounded to {@link #POSITION_PRECISION} degrees
+ * (about 10 metres), so positions differing only by floating point noise share their days.</p>
+ */
+public class LruDayCache implements DayCache {
+
+	/** The precision in degrees positions are rounded to before comparing them. */
+	public static final double POSITION_PRECISION = 0.0001;
+
+	private final int maxSize;
+
+	// guarded by this
+	private final LinkedHashMap<Key, DayStorableDataSet> days;
+
+	// guarded by this
+	private long hitCount = 0, missCount = 0;
+
+	/**
+	 * Creates an empty cache.
+	 * @param maxSize the maximum number of days contained
+	 */
+	public LruDayCache(final int maxSize) {
+
+		if (maxSize < 1) {
+			throw new IllegalArgumentException("Cache must contain at least one day: " + maxSize);
+		}
+
+		this.maxSize = maxSize;
+
+		// access order: iteration starts with the least recently used entry
+		this.days = new LinkedHashMap<Key, DayStorableDataSet>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry(final Map.Entry<Key, DayStorableDataSet> eldest) {
+				return this.size() > LruDayCache.this.maxSize;
+			}
+		};
+	}
+
+	@Override
+	public synchronized DayStorableDataSet get(final LocationProvider locationProvider, final LocalDate date) {
+
+		final DayStorableDataSet data = this.days.get( new Key(locationProvider, date) );
+
+		if (data == null) {
+			this.missCount++;
+		} else {
+			this.hitCount++;
+		}
+
+		return data;
+	}
+
+	@Override
+	public synchronized void put(final LocationProvider locationProvider, final DayStorableDataSet data) {
+		this.days.put( new Key(locationProvider, data.getDate()), data );
+	}
+
+	/** @return the number of calls of {@link #get(LocationProvider, LocalDate)} that found a day */
+	public synchronized long getHitCount() {
+		return this.hitCount;
+	}
+
+	/** @return the number of calls of {@link #get(LocationProvider, LocalDate)} that didn't find a day */
+	public synchronized long getMissCount() {
+		return this.missCount;
+	}
+
+	/** @return the number of days contained */
+	public synchronized int size() {
+		return this.days.size();
+	}
+
+	/** @return the maximum number of days contained */
+	public int getMaxSize() {
+		return this.maxSize;
+	}
+
+	private static class Key {
+
+		private final long latitude, longitude;
+		private final ZoneId zoneId;
+		private final long epochDay;
+
+		Key(final LocationProvider locationProvider, final LocalDate date) {
+
+			final Position position = locationProvider.getObserverPosition();
+
+			this.latitude = Math.round(position.getLatitude() / POSITION_PRECISION);
+			this.longitude = Math.round(position.getLongitude() / POSITION_PRECISION);
+			this.zoneId = locationProvider.getTimeZoneId();
+			this.epochDay = date.toEpochDay();
+		}
+
+		@Override
+		public boolean equals(final Object o) {
+
+			if (this == o) {
+				return true;
+			}
+
+			if (!(o instanceof Key)) {
+				return false;
+			}
+
+			final Key other = (Key) o;
+
+			return this.latitude == other.latitude && this.longitude == other.longitude && this.epochDay == other.epochDay
+					&& this.zoneId.equals(other.zoneId);
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(this.latitude, this.longitude, this.zoneId, this.epochDay);
+		}
+	}
+}
@@ -0,0 +1,140 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import java.util.List;
+
+import de.kah2.zodiac.libZodiac4A.planetary.LunarPhase;
+import de.kah2.zodiac.libZodiac4A.planetary.PlanetaryDayData;
+
+/**
+ * <p>Calculates lunar phases and the day counters until/since lunar extremes of consecutive days based on their lunar visibility.</p>
+ * <p>The values of the days are copied to primitive arrays, which are reused by further calls, so once the arrays are large enough,
+ * calculation doesn't allocate anything and doesn't need to access the {@link Day}-objects repeatedly.</p>
+ * <p>NOTE: Instances aren't thread safe - each thread needs its own.</p>
+ */
+class LunarPhaseKernel {
+
+    private double[] visibilities = new double[0];
+    private LunarPhase[] phases = new LunarPhase[0];
+    private int[] daysSince = new int[0];
+    private int[] daysUntil = new int[0];
+
+    /**
+     * Updates the lunar phases of all days except the first and last one, which lack a neighbor.
+     * @param days sorted days with random access
+     */
+    void updateLunarPhases(final List<Day> days) {
+
+        final int size = days.size();
+
+        if (size < 3) {
+            return;
+        }
+
+        this.load(days);
+
+        calculateLunarPhases(this.visibilities, this.phases, 1, size - 2);
+
+        for (int i = 1; i < size - 1; i++) {
+            days.get(i).getPlanetaryData().setLunarPhase( this.phases[i] );
+        }
+    }
+
+    /**
+     * Updates the lunar phases of the days between given indices and the day counters of all days.
+     * @param days sorted days with random access - must start and end at a lunar extreme or the end of the calendar.
+     * @param phaseFrom index of the first day to update the phase of - at least 1
+     * @param phaseTo index of the last day to update the phase of - at most days.size() - 2
+     */
+    void updateLunarPhasesAndCountDays(final List<Day> days, final int phaseFrom, final int phaseTo) {
+
+        final int size = days.size();
+
+        this.load(days);
+
+        calculateLunarPhasesAndCountDays(this.visibilities, this.phases, this.daysSince, this.daysUntil, size, phaseFrom, phaseTo);
+
+        for (int i = 0; i < size; i++) {
+
+            final PlanetaryDayData data = days.get(i).getPlanetaryData();
+
+            data.setLunarPhase( this.phases[i] );
+            data.setDaysSinceLastMaxPhase( this.daysSince[i] );
+            data.setDaysUntilNextMaxPhase( this.daysUntil[i] );
+        }
+    }
+
+    /** Copies visibilities and current phases of the days to the arrays, which are grown if needed. */
+    private void load(final List<Day> days) {
+
+        final int size = days.size();
+
+        if (this.visibilities.length < size) {
+
+            // grow with some reserve, since windows around extremes vary in size
+            final int capacity = Math.max(size, this.visibilities.length * 2);
+
+            this.visibilities = new double[capacity];
+            this.phases = new LunarPhase[capacity];
+            this.daysSince = new int[capacity];
+            this.daysUntil = new int[capacity];
+        }
+
+        for (int i = 0; i < size; i++) {
+
+            final PlanetaryDayData data = days.get(i).getPlanetaryData();
+
+            this.visibilities[i] = data.getLunarVisibility();
+            this.phases[i] = data.getLunarPhase();
+        }
+    }
+
+    /**
+     * Sets the phases between from and to (inclusive) based on the visibility of each day and its neighbors.
+     */
+    static void calculateLunarPhases(final double[] visibilities, final LunarPhase[] phases, final int from, final int to) {
+
+        for (int i = from; i <= to; i++) {
+            phases[i] = LunarPhase.of( visibilities[i - 1], visibilities[i], visibilities[i + 1] );
+        }
+    }
+
+    /**
+     * <p>Sets the phases between phaseFrom and phaseTo (inclusive) like {@link #calculateLunarPhases(double[], LunarPhase[], int,
+     * int)} and counts the days since the last and until the next lunar extreme for the first size elements of the arrays.</p>
+     * <p>The phase of a day is set right before counting reaches it, so there is one pass per direction. Counters of days before
+     * the first or after the last extreme are {@link PlanetaryDayData#DAY_COUNT_NOT_CALCULATED}.</p>
+     */
+    static void calculateLunarPhasesAndCountDays(final double[] visibilities, final LunarPhase[] phases,
+                                                 final int[] daysSince, final int[] daysUntil,
+                                                 final int size, final int phaseFrom, final int phaseTo) {
+
+        int counter = PlanetaryDayData.DAY_COUNT_NOT_CALCULATED;
+
+        for (int i = 0; i < size; i++) {
+
+            if (i >= phaseFrom && i <= phaseTo) {
+                phases[i] = LunarPhase.of( visibilities[i - 1], visibilities[i], visibilities[i + 1] );
+            }
+
+            counter = nextCount(counter, phases[i]);
+            daysSince[i] = counter;
+        }
+
+        counter = PlanetaryDayData.DAY_COUNT_NOT_CALCULATED;
+
+        for (int i = size - 1; i >= 0; i--) {
+
+            counter = nextCount(counter, phases[i]);
+            daysUntil[i] = counter;
+        }
+    }
+
+    private static int nextCount(final int counter, final LunarPhase phase) {
+
+        if (phase != null && phase.isLunarExtreme()) {
+            return 0;
+        }
+
+        return counter < PlanetaryDayData.DAY_COUNT_NOT_CALCULATED ? counter + 1 : counter;
+    }
+}
@@ -22,14 +22,21 @@ public interface ProgressListener {
 		GENERATING,
 
 		/**
-		 * When extending the expected range to last lunar extreme. Occurs only
+		 * When extending the expected range to last lunar extreme - extending
+		 * to the next lunar extreme runs at the same time. Occurs only
 		 * when scope is {@link Calendar.Scope#CYCLE}.
 		 */
 		EXTENDING_PAST,
 
 		/**
-		 * When extending the expected range to next lunar extreme. Occurs only
+		 * When the last lunar extreme is reached, but extending the expected
+		 * range to next lunar extreme may still be in progress. Occurs only
 		 * when scope is {@link Calendar.Scope#CYCLE}.
+		 * <p>NOTE: Past and future are extended at the same time, so this
+		 * doesn't signal the start of extending the future anymore: that
+		 * already started with {@link #EXTENDING_PAST} and may even be done,
+		 * when this state is entered - then {@link #COUNTING} follows
+		 * immediately.</p>
 		 */
 		EXTENDING_FUTURE,
 
@@ -3,8 +3,8 @@ package de.kah2.zodiac.libZodiac4A;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
 
 import de.kah2.zodiac.libZodiac4A.ProgressListener.State;
 
@@ -21,14 +21,16 @@ class ProgressManager {
 
 	private final static int APPROXIMATE_CYCLE_LENGTH = 17;
 
-	private final List<ProgressListener> progressListeners = new LinkedList<>();
+	// listeners may be added or removed by other threads while notifying
+	private final List<ProgressListener> progressListeners = new CopyOnWriteArrayList<>();
 
 	private long daysToGenerate = 0;
 	private long daysGenerated = 0;
 
 	private float percentGenerated;
 
-	private ProgressListener.State state;
+	// read by other threads via getState() without locking
+	private volatile ProgressListener.State state;
 
 	/** Used to calculate percentage */
 	void reset() {
@@ -50,21 +52,19 @@ class ProgressManager {
 				addEstimatedExtensions(2);
 
 			} else {
-				final LinkedList<Day> days = calendar.getDays().allAsList();
+				final CalendarData days = calendar.getDays();
 
 				// first and last can't have lunar phases
-				days.removeFirst();
-				days.removeLast();
+				final Day second = days.get( days.getFirst().getDate().plusDays(1) );
+				final Day secondToLast = days.get( days.getLast().getDate().minusDays(1) );
 
 				int estimatedExtensions = 0;
 
-				if (days.getFirst().getPlanetaryData().getLunarPhase() == null
-						|| !days.getFirst().getPlanetaryData().getLunarPhase().isLunarExtreme()) {
+				if (!isLunarExtreme(second)) {
 					estimatedExtensions++;
 				}
 
-				if (days.getLast().getPlanetaryData().getLunarPhase() == null
-						|| !days.getLast().getPlanetaryData().getLunarPhase().isLunarExtreme()) {
+				if (!isLunarExtreme(secondToLast)) {
 					estimatedExtensions++;
 				}
 
@@ -73,6 +73,12 @@ class ProgressManager {
 		}
 	}
 
+	private static boolean isLunarExtreme(final Day day) {
+		return day != null
+				&& day.getPlanetaryData().getLunarPhase() != null
+				&& day.getPlanetaryData().getLunarPhase().isLunarExtreme();
+	}
+
 	/** Used to calculate percentage */
 	void addNumberOfDaysToGenerate(final long count) {
 		this.daysToGenerate += count;
@@ -89,13 +95,21 @@ class ProgressManager {
 	}
 
 	/**
-	 * Keeps the {@link ProgressManager} up to date on state changes.
+	 * Keeps the {@link ProgressManager} up to date on state changes. The past may finish extending while days of the future are
+	 * created, so values are updated while holding the lock, but listeners are notified outside of it - slow listeners don't stall
+	 * calculations and may call back into the {@link Calendar}.
 	 */
 	void notifyStateChanged(final ProgressListener.State state) {
 
 		this.log.debug( ">>>>>>>> State changes to {}", state );
 
-		if (this.state != state) {
+		final float percent;
+
+		synchronized (this) {
+
+			if (this.state == state) {
+				return;
+			}
 
 			this.state = state;
 
@@ -108,26 +122,34 @@ class ProgressManager {
 				this.percentGenerated = 1;
 			}
 
-			for (ProgressListener listener : this.progressListeners) {
+			percent = this.percentGenerated;
+		}
 
-				listener.onStateChanged(this.state);
-				listener.onCalculationProgress(this.percentGenerated);
-			}
+		for (ProgressListener listener : this.progressListeners) {
+
+			listener.onStateChanged(state);
+			listener.onCalculationProgress(percent);
 		}
 	}
 
 	/**
-	 * Keeps the {@link ProgressManager} on track with progress.
+	 * Keeps the {@link ProgressManager} on track with progress - listeners are notified outside of the lock like in
+	 * {@link #notifyStateChanged(State)}.
 	 */
 	void notifyDayCreated() {
 
-		this.daysGenerated++;
-		this.updatePercentageOnCalculationProgress();
+		final float percent;
+
+		synchronized (this) {
+			this.daysGenerated++;
+			this.updatePercentageOnCalculationProgress();
+			percent = this.percentGenerated;
+		}
 
-		this.log.debug( "Day created, progress is {}", this.percentGenerated );
+		this.log.debug( "Day created, progress is {}", percent );
 
 		for (ProgressListener listener : this.progressListeners) {
-			listener.onCalculationProgress(this.percentGenerated);
+			listener.onCalculationProgress(percent);
 		}
 	}
 
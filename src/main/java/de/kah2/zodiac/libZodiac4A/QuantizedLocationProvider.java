@@ -0,0 +1,83 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import java.time.ZoneId;
+
+import de.kah2.zodiac.libZodiac4A.planetary.Position;
+
+/**
+ * <p>A {@link LocationProvider} reducing the precision of another one: the observer position is snapped to a grid (see
+ * {@link Position#snapToGrid(double)}), so all users within a grid cell share one position. Combined with a {@link DayCache}
+ * days get calculated once per grid cell instead of once per user.</p>
+ * <p>The error caused by this is estimated by {@link #getMaxRiseSetErrorMinutes(double, double)}. E.g. with a grid size of 0.1
+ * degrees (about 11 km) rise and set times differ by less than one minute up to a latitude of 50 degrees and by less than two
+ * minutes up to 60 degrees, which is about the precision calculated times have anyway. Lunar phase and zodiac sign don't depend on
+ * the position.</p>
+ */
+public class QuantizedLocationProvider implements LocationProvider {
+
+	/** The Earth rotates by one degree in four minutes. */
+	private static final double MINUTES_PER_DEGREE = 4;
+
+	/** The maximum declination of the moon (at major lunar standstill) - the one of the sun is smaller. */
+	private static final double MAX_DECLINATION = 28.725;
+
+	private final ZoneId timeZoneId;
+
+	private final Position observerPosition;
+
+	private final double gridSize;
+
+	/**
+	 * @param locationProvider the {@link LocationProvider} to take time zone and position from - its position is read once.
+	 * @param gridSize the distance of grid points in degrees
+	 */
+	public QuantizedLocationProvider(final LocationProvider locationProvider, final double gridSize) {
+		this.timeZoneId = locationProvider.getTimeZoneId();
+		this.observerPosition = locationProvider.getObserverPosition().snapToGrid(gridSize);
+		this.gridSize = gridSize;
+	}
+
+	@Override
+	public ZoneId getTimeZoneId() {
+		return this.timeZoneId;
+	}
+
+	@Override
+	public Position getObserverPosition() {
+		return this.observerPosition;
+	}
+
+	/** @return the distance of grid points in degrees */
+	public double getGridSize() {
+		return this.gridSize;
+	}
+
+	/**
+	 * <p>Estimates, how much rise and set times can differ for positions within a grid cell of given size.</p>
+	 * <p>This is a first order estimation: a difference in longitude shifts times by four minutes per degree, while the influence of
+	 * latitude depends on the declination of sun and moon and increases towards the poles. Near the polar circles sun or moon might
+	 * not rise at all, so there is no upper limit.</p>
+	 * @param gridSize the distance of grid points in degrees
+	 * @param latitude the latitude of the grid cell
+	 * @return the maximum difference in minutes or {@link Double#POSITIVE_INFINITY} if sun or moon may be circumpolar within the cell
+	 */
+	public static double getMaxRiseSetErrorMinutes(final double gridSize, final double latitude) {
+
+		// the largest distance to the grid point is half a cell
+		final double maxDifference = gridSize / 2;
+
+		final double maxLatitude = Math.toRadians( Math.min( Math.abs(latitude) + maxDifference, Position.MAX_LATITUDE ) );
+		final double tanDeclination = Math.tan( Math.toRadians(MAX_DECLINATION) );
+		final double tanProduct = Math.tan(maxLatitude) * tanDeclination;
+
+		if (tanProduct >= 1) {
+			return Double.POSITIVE_INFINITY;
+		}
+
+		// derivative of the hour angle of rise and set: acos(-tan(latitude) * tan(declination))
+		final double cosLatitude = Math.cos(maxLatitude);
+		final double hourAnglePerLatitude = tanDeclination / (cosLatitude * cosLatitude * Math.sqrt(1 - tanProduct * tanProduct));
+
+		return MINUTES_PER_DEGREE * maxDifference * (1 + hourAnglePerLatitude);
+	}
+}
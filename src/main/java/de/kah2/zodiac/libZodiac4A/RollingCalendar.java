@@ -0,0 +1,92 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * <p>A {@link Calendar} containing a window of a fixed number of days (e.g. "today plus 30 days"), which is moved forward
+ * instead of being regenerated.</p>
+ * <p>When advancing, only the days entering the window are calculated (plus days up to the next lunar extreme if scope is
+ * {@link Calendar.Scope#CYCLE} and it isn't known yet). Lunar phases and day counters are only updated around these days and days
+ * no longer needed are removed and passed to a callback, e.g. to delete them from a database. So the work per advance doesn't
+ * depend on the size of the window - except for publishing the next {@link CalendarSnapshot}, which walks through the window
+ * once, but only copies the days changed.</p>
+ */
+public class RollingCalendar {
+
+	private final Calendar calendar;
+
+	private final int numberOfDays;
+
+	private final Consumer<Day> onDayEvicted;
+
+	/**
+	 * Creates an empty window - call {@link #advanceTo(LocalDate)} to generate the first days.
+	 * @param numberOfDays the number of days the window (= expected range) contains
+	 * @param scope the {@link Calendar.Scope} of the underlying {@link Calendar}
+	 * @param locationProvider The {@link LocationProvider} that is needed for calculations
+	 * @param onDayEvicted gets called for every day removed when advancing
+	 */
+	public RollingCalendar(final int numberOfDays, final Calendar.Scope scope, final LocationProvider locationProvider,
+						   final Consumer<Day> onDayEvicted) {
+
+		this( new Calendar( new DateRange(LocalDate.now(), LocalDate.now().plusDays(numberOfDays - 1)), scope, locationProvider ),
+				numberOfDays, onDayEvicted );
+	}
+
+	/** Needed for tests to allow stubbing the {@link Calendar}. */
+	RollingCalendar(final Calendar calendar, final int numberOfDays, final Consumer<Day> onDayEvicted) {
+
+		if (numberOfDays < 1) {
+			throw new IllegalArgumentException("Window must contain at least one day: " + numberOfDays);
+		}
+
+		this.calendar = calendar;
+		this.numberOfDays = numberOfDays;
+		this.onDayEvicted = onDayEvicted;
+	}
+
+	/**
+	 * Moves the window by one day.
+	 * @return the days calculated, see {@link Calendar#getNewlyGenerated()}
+	 */
+	public List<Day> advance() {
+		return this.advanceTo( this.calendar.getRangeExpected().getStart().plusDays(1) );
+	}
+
+	/**
+	 * Moves the window to start at given date, calculates missing days and removes days not needed anymore. Blocks until all is
+	 * done. If the window was moved backwards or beyond the days contained, the days are generated like by
+	 * {@link Calendar#startGeneration()}.
+	 * @param firstDay the first day of the window, e.g. today
+	 * @return the days calculated, see {@link Calendar#getNewlyGenerated()}
+	 */
+	public synchronized List<Day> advanceTo(final LocalDate firstDay) {
+
+		this.calendar.setRangeExpected( new DateRange(firstDay, firstDay.plusDays(this.numberOfDays - 1)) );
+
+		final CalendarGenerator generator = this.calendar.getGenerator();
+
+		// the window only moved forward, so the days entering it are generated without a full generation pass
+		if ( generator.isOnlyEndMissing() ) {
+			generator.startGeneratingEnd();
+		} else {
+			this.calendar.startGeneration();
+		}
+
+		// days after the window are kept - they will be needed after advancing further
+		for (Day day : this.calendar.removeOverhead(false)) {
+			this.onDayEvicted.accept(day);
+		}
+
+		return this.calendar.getNewlyGenerated();
+	}
+
+	/**
+	 * @return the underlying {@link Calendar} to read (or import) days - don't change its expected range.
+	 */
+	public Calendar getCalendar() {
+		return this.calendar;
+	}
+}
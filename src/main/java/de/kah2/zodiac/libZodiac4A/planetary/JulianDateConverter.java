@@ -0,0 +1,99 @@
+package de.kah2.zodiac.libZodiac4A.planetary;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+
+/**
+ * <p>Converts local dates and times of a time zone to julian dates and julian dates back to epoch seconds.</p>
+ * <p>The julian date is a linear function of the epoch second, so instead of building {@link java.time.ZonedDateTime}s and
+ * {@link de.kah2.zodiac.nova4jmt.api.LnDate}s it is calculated directly. The offset of the time zone is cached until the next (or
+ * after the previous) transition, so it is only looked up in the {@link ZoneRules} about twice a year.</p>
+ * <p>NOTE: Instances aren't thread safe.</p>
+ */
+class JulianDateConverter {
+
+	private static final long SECONDS_PER_DAY = 86400;
+
+	/** julian date of 1970-01-01T00:00Z */
+	private static final double JULIAN_DATE_OF_EPOCH = 2440587.5;
+
+	private final ZoneRules rules;
+
+	// local epoch seconds (= seconds since 1970-01-01T00:00 local time) in which the cached offset is valid
+	private long offsetValidFrom = Long.MAX_VALUE;
+	private long offsetValidUntil = Long.MIN_VALUE;
+
+	private int offsetSeconds;
+
+	JulianDateConverter(final ZoneId zoneId) {
+		this.rules = zoneId.getRules();
+	}
+
+	/**
+	 * @return the julian date of given local date and time - it is treated like {@link java.time.ZonedDateTime#of(LocalDate,
+	 *         LocalTime, ZoneId)} does, e.g. if it falls into a gap caused by daylight saving time, the offset before the gap is used.
+	 */
+	double toJulianDate(final LocalDate date, final LocalTime time) {
+
+		final long localEpochSecond = date.toEpochDay() * SECONDS_PER_DAY + time.toSecondOfDay();
+
+		return toJulianDate( localEpochSecond - this.getOffsetSeconds(localEpochSecond) );
+	}
+
+	private int getOffsetSeconds(final long localEpochSecond) {
+
+		if (localEpochSecond < this.offsetValidFrom || localEpochSecond >= this.offsetValidUntil) {
+			this.updateOffset(localEpochSecond);
+		}
+
+		return this.offsetSeconds;
+	}
+
+	private void updateOffset(final long localEpochSecond) {
+
+		final LocalDateTime localDateTime = LocalDateTime.ofEpochSecond(localEpochSecond, 0, ZoneOffset.UTC);
+
+		// returns the offset before the transition for gaps and overlaps - like ZonedDateTime.of(...) does
+		final ZoneOffset offset = this.rules.getOffset(localDateTime);
+		this.offsetSeconds = offset.getTotalSeconds();
+
+		final long epochSecond = localEpochSecond - this.offsetSeconds;
+
+		// the cached offset is valid, where local times are unambiguous, so gaps and overlaps are excluded
+		final ZoneOffsetTransition previous = this.rules.previousTransition( Instant.ofEpochSecond(epochSecond + 1) );
+		final ZoneOffsetTransition next = this.rules.nextTransition( Instant.ofEpochSecond(epochSecond) );
+
+		this.offsetValidFrom = previous == null ? Long.MIN_VALUE
+				: Math.max( toLocalEpochSecond(previous.getDateTimeBefore()), toLocalEpochSecond(previous.getDateTimeAfter()) );
+
+		this.offsetValidUntil = next == null ? Long.MAX_VALUE
+				: Math.min( toLocalEpochSecond(next.getDateTimeBefore()), toLocalEpochSecond(next.getDateTimeAfter()) );
+
+		if (localEpochSecond < this.offsetValidFrom || localEpochSecond >= this.offsetValidUntil) {
+			// local time is within a gap or overlap, so the offset isn't valid for the range found
+			this.offsetValidFrom = Long.MAX_VALUE;
+			this.offsetValidUntil = Long.MIN_VALUE;
+		}
+	}
+
+	private static long toLocalEpochSecond(final LocalDateTime localDateTime) {
+		return localDateTime.toEpochSecond(ZoneOffset.UTC);
+	}
+
+	/** @return the second since 1970-01-01T00:00Z of given julian date, rounded to the nearest millisecond first */
+	static long toEpochSecond(final double julianDate) {
+		final long epochMilli = Math.round( (julianDate - JULIAN_DATE_OF_EPOCH) * SECONDS_PER_DAY * 1000 );
+		return Math.floorDiv(epochMilli, 1000);
+	}
+
+	/** @return the julian date of given second since 1970-01-01T00:00Z */
+	static double toJulianDate(final long epochSecond) {
+		return epochSecond / (double) SECONDS_PER_DAY + JULIAN_DATE_OF_EPOCH;
+	}
+}
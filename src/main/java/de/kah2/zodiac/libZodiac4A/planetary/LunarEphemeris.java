@@ -0,0 +1,192 @@
+package de.kah2.zodiac.libZodiac4A.planetary;
+
+import java.util.concurrent.ConcurrentHashMap;
+
+import de.kah2.zodiac.nova4jmt.api.LnLnlatPosn;
+import de.kah2.zodiac.nova4jmt.solarsystem.Lunar;
+
+/**
+ * <p>A table of lunar longitude and lunar disk, which replaces evaluating the ELP-2000 series of libnova by interpolation.</p>
+ * <p>Both values don't depend on the location of the observer, so one table can be shared by all calendars of a process - see
+ * {@link #getShared()}. Values are calculated every twelve hours and interpolated by polynomials of fifth degree through six of
+ * them, which differs less than 0.0001 degrees from the calculated longitude - far less than needed to determine the zodiac sign
+ * and below the precision libnova is asked for.</p>
+ * <p>The table is built in chunks of 128 days, when a date is requested the first time (about 4 KB per chunk). Building a chunk
+ * evaluates the ELP-2000 series two times per day, which takes about twice as long as calculating longitude and disk of its 128
+ * days directly - so the table only pays off, if the days of the chunks built are needed more than once, e.g. by many calendars
+ * sharing it or calendars generated again. A calendar needing only a few days is calculated several times slower with it.</p>
+ * <p>At most {@link #getMaxChunks()} chunks are kept - if another one is needed, the one farthest away from it is dropped. This
+ * class is thread safe.</p>
+ */
+public class LunarEphemeris {
+
+	private static final int STEPS_PER_DAY = 2;
+	private static final double STEP = 1.0 / STEPS_PER_DAY;
+
+	private static final int DAYS_PER_CHUNK = 128;
+	private static final int STEPS_PER_CHUNK = DAYS_PER_CHUNK * STEPS_PER_DAY;
+
+	/** J2000 - chunks are counted from here */
+	private static final double REFERENCE_JULIAN_DATE = 2451545.0;
+
+	/** the same precision {@link PlanetaryDayData} uses */
+	private static final double LONGITUDE_PRECISION = 0.01;
+
+	/** about 11 years */
+	private static final int DEFAULT_MAX_CHUNKS = 32;
+
+	private static final LunarEphemeris SHARED = new LunarEphemeris();
+
+	private final ConcurrentHashMap<Long, Chunk> chunks = new ConcurrentHashMap<>();
+
+	private final int maxChunks;
+
+	/**
+	 * Creates an empty table keeping at most 32 chunks (about 11 years, 128 KB).
+	 */
+	public LunarEphemeris() {
+		this(DEFAULT_MAX_CHUNKS);
+	}
+
+	/**
+	 * Creates an empty table.
+	 * @param maxChunks the maximal number of chunks of 128 days kept
+	 */
+	public LunarEphemeris(final int maxChunks) {
+
+		if (maxChunks < 1) {
+			throw new IllegalArgumentException("At least one chunk must be kept: " + maxChunks);
+		}
+
+		this.maxChunks = maxChunks;
+	}
+
+	/**
+	 * @return an instance shared by the whole process - it is never released, but like every instance keeps at most
+	 *         {@link #getMaxChunks()} chunks.
+	 */
+	public static LunarEphemeris getShared() {
+		return SHARED;
+	}
+
+	/**
+	 * @return the maximal number of chunks of 128 days kept
+	 */
+	public int getMaxChunks() {
+		return this.maxChunks;
+	}
+
+	/**
+	 * @param julianDate the julian date in UTC
+	 * @return the ecliptic longitude of the moon (between 0 and 360 degrees)
+	 */
+	public double getLunarLongitude(final double julianDate) {
+
+		final double longitude = this.interpolate(julianDate, true) % 360;
+
+		return longitude < 0 ? longitude + 360 : longitude;
+	}
+
+	/**
+	 * @param julianDate the julian date in UTC
+	 * @return the illuminated fraction of the lunar disk (between 0 and 1)
+	 */
+	public double getLunarDisk(final double julianDate) {
+		return Math.max( 0, Math.min( 1, this.interpolate(julianDate, false) ) );
+	}
+
+	private double interpolate(final double julianDate, final boolean isLongitude) {
+
+		final double position = (julianDate - REFERENCE_JULIAN_DATE) / STEP;
+		final long step = (long) Math.floor(position);
+
+		final long chunkIndex = Math.floorDiv(step, STEPS_PER_CHUNK);
+		final Chunk chunk = this.getChunk(chunkIndex);
+
+		final double[] values = isLongitude ? chunk.longitudes : chunk.disks;
+
+		// values[i + 2] belongs to step i of the chunk, so the 6 values around the step start at index i
+		final int i = (int) (step - chunkIndex * STEPS_PER_CHUNK);
+		final double x = position - step;
+
+		// distances to steps -2, -1, 0, 1, 2 and 3
+		final double a = x + 2, b = x + 1, c = x, d = x - 1, e = x - 2, f = x - 3;
+
+		// Lagrange polynomial through these steps
+		return - values[i] * b * c * d * e * f / 120
+				+ values[i + 1] * a * c * d * e * f / 24
+				- values[i + 2] * a * b * d * e * f / 12
+				+ values[i + 3] * a * b * c * e * f / 12
+				- values[i + 4] * a * b * c * d * f / 24
+				+ values[i + 5] * a * b * c * d * e / 120;
+	}
+
+	private Chunk getChunk(final long chunkIndex) {
+
+		final Chunk chunk = this.chunks.get(chunkIndex);
+
+		if (chunk != null) {
+			return chunk;
+		}
+
+		final Chunk created = this.chunks.computeIfAbsent(chunkIndex, Chunk::new);
+
+		// calendars move slowly through time, so the chunk farthest away is the least likely to be needed again
+		while (this.chunks.size() > this.maxChunks) {
+
+			long farthest = chunkIndex;
+
+			for (long index : this.chunks.keySet()) {
+				if (Math.abs(index - chunkIndex) > Math.abs(farthest - chunkIndex)) {
+					farthest = index;
+				}
+			}
+
+			if (farthest == chunkIndex) {
+				break;
+			}
+
+			this.chunks.remove(farthest);
+		}
+
+		return created;
+	}
+
+	/** Needed for tests. */
+	int getChunkCount() {
+		return this.chunks.size();
+	}
+
+	/** Contains the calculated values of a chunk plus two steps before and three steps after it needed for interpolation. */
+	private static class Chunk {
+
+		// longitudes don't jump from 360 to 0, so they can be interpolated
+		private final double[] longitudes = new double[STEPS_PER_CHUNK + 5];
+		private final double[] disks = new double[STEPS_PER_CHUNK + 5];
+
+		Chunk(final long chunkIndex) {
+
+			final LnLnlatPosn position = new LnLnlatPosn();
+			final long firstStep = chunkIndex * STEPS_PER_CHUNK - 2;
+
+			for (int i = 0; i < this.longitudes.length; i++) {
+
+				final double julianDate = REFERENCE_JULIAN_DATE + (firstStep + i) * STEP;
+
+				Lunar.ln_get_lunar_ecl_coords(julianDate, position, LONGITUDE_PRECISION);
+				this.longitudes[i] = position.lng;
+
+				// the moon moves about 6.6 degrees per step, so a bigger difference is a jump
+				while (i > 0 && this.longitudes[i] < this.longitudes[i - 1] - 180) {
+					this.longitudes[i] += 360;
+				}
+
+				while (i > 0 && this.longitudes[i] > this.longitudes[i - 1] + 180) {
+					this.longitudes[i] -= 360;
+				}
+
+				this.disks[i] = Lunar.ln_get_lunar_disk(julianDate);
+			}
+		}
+	}
+}
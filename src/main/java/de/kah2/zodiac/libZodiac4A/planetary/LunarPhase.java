@@ -21,9 +21,19 @@ public enum LunarPhase {
 	 */
 	public static LunarPhase of(final Day previous, final Day target, final Day next) {
 
-		final double yesterdaysVisibility = previous.getPlanetaryData().getLunarVisibility();
-		final double actualVisibility = target.getPlanetaryData().getLunarVisibility();
-		final double tomorrowsVisibility = next.getPlanetaryData().getLunarVisibility();
+		return of( previous.getPlanetaryData().getLunarVisibility(),
+				target.getPlanetaryData().getLunarVisibility(),
+				next.getPlanetaryData().getLunarVisibility() );
+	}
+
+	/**
+	 * Does the same as {@link #of(Day, Day, Day)} based on visibility values only.
+	 * @param yesterdaysVisibility lunar visibility of the day before target
+	 * @param actualVisibility lunar visibility of the target day
+	 * @param tomorrowsVisibility lunar visibility of the day after target
+	 * @return The {@link LunarPhase} of the target day
+	 */
+	public static LunarPhase of(final double yesterdaysVisibility, final double actualVisibility, final double tomorrowsVisibility) {
 
 		if (yesterdaysVisibility < actualVisibility) {
 			if (actualVisibility < tomorrowsVisibility) {
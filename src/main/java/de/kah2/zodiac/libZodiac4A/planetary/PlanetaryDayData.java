@@ -1,17 +1,15 @@
 package de.kah2.zodiac.libZodiac4A.planetary;
 
-import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalTime;
-import java.time.ZoneId;
-import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
 
 import de.kah2.zodiac.libZodiac4A.Calendar;
+import de.kah2.zodiac.libZodiac4A.DateRange;
 import de.kah2.zodiac.libZodiac4A.Day;
 import de.kah2.zodiac.libZodiac4A.DayStorableDataSet;
 import de.kah2.zodiac.libZodiac4A.LocationProvider;
-import de.kah2.zodiac.nova4jmt.JulianDay;
-import de.kah2.zodiac.nova4jmt.api.LnDate;
 import de.kah2.zodiac.nova4jmt.api.LnLnlatPosn;
 import de.kah2.zodiac.nova4jmt.api.LnRstTime;
 import de.kah2.zodiac.nova4jmt.solarsystem.Lunar;
@@ -49,17 +47,31 @@ public class PlanetaryDayData {
 	 */
 	public static final int DAY_COUNT_NOT_CALCULATED = Integer.MAX_VALUE;
 
-	final static ZoneId TIME_ZONE_ID_LIBNOVA = ZoneId.of("UTC");
-
 	/**
-	 * These values are only needed for calculation of the other values. => They
-	 * get not persisted.
+	 * This value is only needed for calculation of rise and set times. => It
+	 * gets not persisted.
 	 */
-	private double julianDateAtDayStart, julianDateAtNoon;
+	private double julianDateAtDayStart;
 
 	private double lunarVisibility;
+
+	/**
+	 * Rise and set times are kept as epoch seconds instead of {@link RiseSet}- and {@link java.time.Instant}-objects, which saves six
+	 * objects per day as long as they aren't requested. The {@link RiseSet}s are created on first request and kept, see
+	 * {@link RiseSet#NO_INSTANT} and {@link RiseSet#NO_RISE_SET} for special values.
+	 */
+	private long lunarRise, lunarSet, solarRise, solarSet;
+
+	// created by the getters - RiseSet is immutable, so creating one twice by concurrent calls does no harm
 	private RiseSet lunarRiseSet, solarRiseSet;
 
+	/**
+	 * Rise and set times are the most expensive values to calculate - if calculated lazily, these flags are false until first access
+	 * and {@link #lazyObserverPosition} keeps the position needed for calculation.
+	 */
+	private volatile boolean isLunarRiseSetCalculated = true, isSolarRiseSetCalculated = true;
+	private LnLnlatPosn lazyObserverPosition;
+
 	private double lunarLongitude;
 	private LunarPhase lunarPhase = null;
 
@@ -83,6 +95,37 @@ public class PlanetaryDayData {
 		return data;
 	}
 
+	/**
+	 * Creates an independent copy, e.g. to keep the values depending on neighbor days while this object gets updated. Rise and set
+	 * times not calculated so far are calculated by the copy on its own, when requested.
+	 * @return a new {@link PlanetaryDayData}-object containing the same values
+	 */
+	public synchronized PlanetaryDayData copy() {
+
+		final PlanetaryDayData copy = new PlanetaryDayData();
+
+		copy.julianDateAtDayStart = this.julianDateAtDayStart;
+		copy.lunarVisibility = this.lunarVisibility;
+		copy.lunarLongitude = this.lunarLongitude;
+
+		copy.lunarRise = this.lunarRise;
+		copy.lunarSet = this.lunarSet;
+		copy.solarRise = this.solarRise;
+		copy.solarSet = this.solarSet;
+		copy.lunarRiseSet = this.lunarRiseSet;
+		copy.solarRiseSet = this.solarRiseSet;
+
+		copy.lazyObserverPosition = this.lazyObserverPosition;
+		copy.isLunarRiseSetCalculated = this.isLunarRiseSetCalculated;
+		copy.isSolarRiseSetCalculated = this.isSolarRiseSetCalculated;
+
+		copy.lunarPhase = this.lunarPhase;
+		copy.daysSinceLastMaxPhase = this.daysSinceLastMaxPhase;
+		copy.daysUntilNextMaxPhase = this.daysUntilNextMaxPhase;
+
+		return copy;
+	}
+
 	/**
 	 * This is used to calculate the data for a given date.
 	 * @param date the date, for which the data is to be calculated
@@ -90,90 +133,210 @@ public class PlanetaryDayData {
 	 * @return a new {@link PlanetaryDayData}-object based on given parameters
 	 */
 	public static PlanetaryDayData calculateFor(final LocalDate date, final LocationProvider locationProvider) {
-		final PlanetaryDayData data = new PlanetaryDayData();
+		return calculateFor(date, locationProvider, false);
+	}
 
-		final ZoneId zoneId = locationProvider.getTimeZoneId();
-		final Position observerPosition = locationProvider.getObserverPosition();
+	/**
+	 * This is used to calculate the data for a given date.
+	 * @param date the date, for which the data is to be calculated
+	 * @param locationProvider needed to get timezone and location of the "observer"
+	 * @param calculateRiseSetLazily if true, solar and lunar rise and set times aren't calculated until they are requested the first
+	 *                               time. This more than halves calculation time, if only e.g. zodiac sign and lunar phase are
+	 *                               needed.
+	 * @return a new {@link PlanetaryDayData}-object based on given parameters
+	 */
+	public static PlanetaryDayData calculateFor(final LocalDate date, final LocationProvider locationProvider,
+												final boolean calculateRiseSetLazily) {
 
-		data.calculateJulianDateAtDayStart(date, zoneId);
-		data.calculateJulianDateAtNoon(date, zoneId);
+		return calculateFor(date, locationProvider, calculateRiseSetLazily, null);
+	}
 
-		data.calculateSolarRiseSetFor(observerPosition, zoneId);
-		data.calculateLunarRiseSetFor(observerPosition, zoneId);
-		data.calculateLunarVisibility();
-		data.calculateLunarLongitude();
+	/**
+	 * This is used to calculate the data for a given date.
+	 * @param date the date, for which the data is to be calculated
+	 * @param locationProvider needed to get timezone and location of the "observer"
+	 * @param calculateRiseSetLazily see {@link #calculateFor(LocalDate, LocationProvider, boolean)}
+	 * @param ephemeris if not null, lunar longitude and visibility are interpolated from this table instead of being calculated
+	 * @return a new {@link PlanetaryDayData}-object based on given parameters
+	 */
+	public static PlanetaryDayData calculateFor(final LocalDate date, final LocationProvider locationProvider,
+												final boolean calculateRiseSetLazily, final LunarEphemeris ephemeris) {
 
-		return data;
+		return calculateFor(date, locationProvider, calculateRiseSetLazily, ephemeris, Double.NaN);
 	}
 
-	private void calculateJulianDateAtDayStart(final LocalDate date, final ZoneId zoneId) {
-		final ZonedDateTime zonedDayStart = ZonedDateTime.of( date.atStartOfDay(), zoneId );
-		this.julianDateAtDayStart = zonedDateToJulianDate( zonedDayStart );
-	}
+	/**
+	 * Does the same as {@link #calculateFor(LocalDate, LocationProvider, boolean, LunarEphemeris)}, but reuses a lunar visibility
+	 * already calculated by {@link #calculateLunarVisibilityFor(LocalDate, LocationProvider, LunarEphemeris)} for the same date and
+	 * ephemeris - e.g. while searching lunar extremes - instead of calculating it again.
+	 * @param date the date, for which the data is to be calculated
+	 * @param locationProvider needed to get timezone and location of the "observer"
+	 * @param calculateRiseSetLazily see {@link #calculateFor(LocalDate, LocationProvider, boolean)}
+	 * @param ephemeris see {@link #calculateFor(LocalDate, LocationProvider, boolean, LunarEphemeris)}
+	 * @param lunarVisibility the known visibility of this date or {@link Double#NaN} to calculate it
+	 * @return a new {@link PlanetaryDayData}-object based on given parameters
+	 */
+	public static PlanetaryDayData calculateFor(final LocalDate date, final LocationProvider locationProvider,
+												final boolean calculateRiseSetLazily, final LunarEphemeris ephemeris,
+												final double lunarVisibility) {
 
-	private void calculateJulianDateAtNoon(final LocalDate date, final ZoneId zoneId) {
-		final ZonedDateTime zonedNoon = ZonedDateTime.of( date, LocalTime.NOON, zoneId );
-		this.julianDateAtNoon = zonedDateToJulianDate( zonedNoon );
+		return new Calculator(locationProvider, ephemeris).calculate(date, calculateRiseSetLazily, lunarVisibility);
 	}
 
-	private static double zonedDateToJulianDate(final ZonedDateTime date) {
+	/**
+	 * Calculates the data for all dates of a range at once. Work depending only on the location (time zone and observer position) is
+	 * done once and the helper objects of libnova are reused for all dates, so this is faster than calling
+	 * {@link #calculateFor(LocalDate, LocationProvider)} for every date.
+	 * @param range the dates, for which the data is to be calculated
+	 * @param locationProvider needed to get timezone and location of the "observer"
+	 * @return a list of new {@link PlanetaryDayData}-objects in chronological order - one for every date of the range
+	 */
+	public static List<PlanetaryDayData> calculateRange(final DateRange range, final LocationProvider locationProvider) {
 
-		final Instant utcDate = date.withZoneSameInstant(PlanetaryDayData.TIME_ZONE_ID_LIBNOVA)
-				.toInstant();
+		final Calculator calculator = new Calculator(locationProvider, null);
+		final List<PlanetaryDayData> result = new ArrayList<>(range.size());
 
-		final LnDate lnDate = new LnDate();
-		JulianDay.ln_get_date_from_UTC_milliseconds(lnDate, utcDate.toEpochMilli());
+		for (LocalDate date : range) {
+			result.add( calculator.calculate(date, false, Double.NaN) );
+		}
 
-		return JulianDay.ln_get_julian_day(lnDate);
+		return result;
 	}
 
-	/** depends on {@link #julianDateAtNoon} */
-	private void calculateLunarLongitude() {
-		final LnLnlatPosn position = new LnLnlatPosn();
+	/**
+	 * Contains everything needed for calculation, that doesn't depend on the date. Objects passed to libnova for results are reused,
+	 * so an instance must not be used by more than one thread.
+	 */
+	private static class Calculator {
+
+		private final JulianDateConverter julianDateConverter;
+		private final LnLnlatPosn observerPosition;
 
-		Lunar.ln_get_lunar_ecl_coords(this.julianDateAtNoon, position, 0.01);
+		private final LnRstTime lnRstTimes = new LnRstTime();
+		private final LnLnlatPosn lunarPosition = new LnLnlatPosn();
+
+		// null to calculate lunar longitude and visibility
+		private final LunarEphemeris ephemeris;
+
+		Calculator(final LocationProvider locationProvider, final LunarEphemeris ephemeris) {
+			this.julianDateConverter = new JulianDateConverter( locationProvider.getTimeZoneId() );
+			this.observerPosition = locationProvider.getObserverPosition().to_LnLnLatPosn();
+			this.ephemeris = ephemeris;
+		}
 
-		this.lunarLongitude = position.lng;
+		/** @param lunarVisibility the known visibility or {@link Double#NaN} to calculate it */
+		PlanetaryDayData calculate(final LocalDate date, final boolean calculateRiseSetLazily, final double lunarVisibility) {
+
+			final PlanetaryDayData data = new PlanetaryDayData();
+
+			data.julianDateAtDayStart = this.julianDateConverter.toJulianDate(date, LocalTime.MIDNIGHT);
+			final double julianDateAtNoon = this.julianDateConverter.toJulianDate(date, LocalTime.NOON);
+
+			if (calculateRiseSetLazily) {
+
+				data.lazyObserverPosition = this.observerPosition;
+				data.isSolarRiseSetCalculated = false;
+				data.isLunarRiseSetCalculated = false;
+
+			} else {
+
+				data.calculateSolarRiseSetFor(this.observerPosition, this.lnRstTimes);
+				data.calculateLunarRiseSetFor(this.observerPosition, this.lnRstTimes);
+			}
+
+			if (this.ephemeris == null) {
+
+				data.lunarVisibility = Double.isNaN(lunarVisibility) ? Lunar.ln_get_lunar_disk(julianDateAtNoon) : lunarVisibility;
+
+				Lunar.ln_get_lunar_ecl_coords(julianDateAtNoon, this.lunarPosition, 0.01);
+				data.lunarLongitude = this.lunarPosition.lng;
+
+			} else {
+
+				data.lunarVisibility = Double.isNaN(lunarVisibility) ? this.ephemeris.getLunarDisk(julianDateAtNoon) : lunarVisibility;
+				data.lunarLongitude = this.ephemeris.getLunarLongitude(julianDateAtNoon);
+			}
+
+			return data;
+		}
 	}
 
-	/** depends on {@link #julianDateAtNoon} */
-	private void calculateLunarVisibility() {
-		this.lunarVisibility = Lunar.ln_get_lunar_disk(this.julianDateAtNoon);
+	/**
+	 * Calculates only the lunar visibility of a date, which is much cheaper than {@link #calculateFor(LocalDate, LocationProvider)}.
+	 * This allows e.g. searching lunar extremes without calculating rise and set times.
+	 * @param date the date, for which the visibility is to be calculated
+	 * @param locationProvider needed to get the timezone of the "observer"
+	 * @return the same value {@link #getLunarVisibility()} would return for this date
+	 */
+	public static double calculateLunarVisibilityFor(final LocalDate date, final LocationProvider locationProvider) {
+		return calculateLunarVisibilityFor(date, locationProvider, null);
 	}
 
-	/** depends on {@link #julianDateAtDayStart} */
-	private void calculateLunarRiseSetFor(final Position position, final ZoneId zoneId) {
-		final LnLnlatPosn observerPos = position.to_LnLnLatPosn();
+	/**
+	 * Does the same as {@link #calculateLunarVisibilityFor(LocalDate, LocationProvider)}, but optionally interpolates the value.
+	 * @param date the date, for which the visibility is to be calculated
+	 * @param locationProvider needed to get the timezone of the "observer"
+	 * @param ephemeris if not null, the visibility is interpolated from this table instead of being calculated
+	 * @return the same value {@link #getLunarVisibility()} would return for this date
+	 */
+	public static double calculateLunarVisibilityFor(final LocalDate date, final LocationProvider locationProvider,
+													 final LunarEphemeris ephemeris) {
+
+		final double julianDateAtNoon =
+				new JulianDateConverter( locationProvider.getTimeZoneId() ).toJulianDate(date, LocalTime.NOON);
 
-		final LnRstTime lnRstTimes = new LnRstTime();
+		return ephemeris == null ? Lunar.ln_get_lunar_disk(julianDateAtNoon) : ephemeris.getLunarDisk(julianDateAtNoon);
+	}
+
+	/** depends on {@link #julianDateAtDayStart} */
+	private void calculateLunarRiseSetFor(final LnLnlatPosn observerPos, final LnRstTime lnRstTimes) {
 
 		// static method: calculates lnRstTimes
 		final int resultCode = Lunar.ln_get_lunar_rst(this.julianDateAtDayStart, observerPos, lnRstTimes);
 
 		if (resultCode == 1) {
 			// moon is circumpolar
-			this.lunarRiseSet = null;
+			this.lunarRise = RiseSet.NO_RISE_SET;
+			this.lunarSet = RiseSet.NO_RISE_SET;
 		} else {
-			this.lunarRiseSet = new RiseSet(lnRstTimes);
+			this.lunarRise = RiseSet.toEpochSecond(lnRstTimes.rise);
+			this.lunarSet = RiseSet.toEpochSecond(lnRstTimes.set);
 		}
 	}
 
-	private void calculateSolarRiseSetFor(final Position position, final ZoneId zoneId) {
-		final LnLnlatPosn observerPos = position.to_LnLnLatPosn();
-
-		final LnRstTime lnRstTimes = new LnRstTime();
+	/** depends on {@link #julianDateAtDayStart} */
+	private void calculateSolarRiseSetFor(final LnLnlatPosn observerPos, final LnRstTime lnRstTimes) {
 
 		// static method: calculates lnRstTimes
 		final int resultCode = Solar.ln_get_solar_rst(this.julianDateAtDayStart, observerPos, lnRstTimes);
 
 		if (resultCode == 1) {
 			// Sun is circumpolar
-			this.solarRiseSet = null;
+			this.solarRise = RiseSet.NO_RISE_SET;
+			this.solarSet = RiseSet.NO_RISE_SET;
 		} else {
-			this.solarRiseSet = new RiseSet(lnRstTimes);
+			this.solarRise = RiseSet.toEpochSecond(lnRstTimes.rise);
+			this.solarSet = RiseSet.toEpochSecond(lnRstTimes.set);
 		}
 	}
 
+	/** Calculates rise and set times not calculated so far, when data was calculated lazily. */
+	private synchronized void calculateMissingRiseSets() {
+
+		if (!this.isSolarRiseSetCalculated) {
+			this.calculateSolarRiseSetFor(this.lazyObserverPosition, new LnRstTime());
+			this.isSolarRiseSetCalculated = true;
+		}
+
+		if (!this.isLunarRiseSetCalculated) {
+			this.calculateLunarRiseSetFor(this.lazyObserverPosition, new LnRstTime());
+			this.isLunarRiseSetCalculated = true;
+		}
+
+		// not needed anymore
+		this.lazyObserverPosition = null;
+	}
+
 	/**
 	 * @return The ecliptic longitude of the Moon.
 	 */
@@ -195,7 +358,19 @@ public class PlanetaryDayData {
 	 */
 
 	public final RiseSet getLunarRiseSet() {
-		return this.lunarRiseSet;
+
+		if (!this.isLunarRiseSetCalculated) {
+			this.calculateMissingRiseSets();
+		}
+
+		RiseSet riseSet = this.lunarRiseSet;
+
+		if (riseSet == null) {
+			riseSet = RiseSet.of(this.lunarRise, this.lunarSet);
+			this.lunarRiseSet = riseSet;
+		}
+
+		return riseSet;
 	}
 
 	/**
@@ -203,7 +378,19 @@ public class PlanetaryDayData {
 	 *         rise/set.
 	 */
 	public final RiseSet getSolarRiseSet() {
-		return this.solarRiseSet;
+
+		if (!this.isSolarRiseSetCalculated) {
+			this.calculateMissingRiseSets();
+		}
+
+		RiseSet riseSet = this.solarRiseSet;
+
+		if (riseSet == null) {
+			riseSet = RiseSet.of(this.solarRise, this.solarSet);
+			this.solarRiseSet = riseSet;
+		}
+
+		return riseSet;
 	}
 
 	/**
@@ -285,11 +472,29 @@ public class PlanetaryDayData {
 
 	/** For importing data and testing */
 	void setLunarRiseSet(final RiseSet lunarRiseSet) {
+
+		if (lunarRiseSet == null) {
+			this.lunarRise = RiseSet.NO_RISE_SET;
+			this.lunarSet = RiseSet.NO_RISE_SET;
+		} else {
+			this.lunarRise = lunarRiseSet.getRiseEpochSecond();
+			this.lunarSet = lunarRiseSet.getSetEpochSecond();
+		}
 		this.lunarRiseSet = lunarRiseSet;
+		this.isLunarRiseSetCalculated = true;
 	}
 
 	/** For importing data and testing */
 	void setSolarRiseSet(final RiseSet solarRiseSet) {
+
+		if (solarRiseSet == null) {
+			this.solarRise = RiseSet.NO_RISE_SET;
+			this.solarSet = RiseSet.NO_RISE_SET;
+		} else {
+			this.solarRise = solarRiseSet.getRiseEpochSecond();
+			this.solarSet = solarRiseSet.getSetEpochSecond();
+		}
 		this.solarRiseSet = solarRiseSet;
+		this.isSolarRiseSetCalculated = true;
 	}
 }
@@ -42,6 +42,26 @@ public class Position {
 		return lnLnLatPosn;
 	}
 
+	/**
+	 * Rounds this position to the nearest point of a grid, so all positions within a cell share one position - e.g. to share
+	 * calculated days.
+	 * @param gridSize the distance of grid points in degrees (latitude and longitude)
+	 * @return a new {@link Position} on the grid
+	 * @throws IllegalArgumentException if gridSize isn't positive
+	 */
+	public Position snapToGrid(final double gridSize) {
+
+		if (!(gridSize > 0)) {
+			throw new IllegalArgumentException("Grid size must be positive: " + gridSize);
+		}
+
+		// the nearest grid point might be outside if gridSize doesn't divide the allowed range
+		final double lat = Math.max( MIN_LATITUDE, Math.min( MAX_LATITUDE, Math.round(this.latitude / gridSize) * gridSize ) );
+		final double lng = Math.max( MIN_LONGITUDE, Math.min( MAX_LONGITUDE, Math.round(this.longitude / gridSize) * gridSize ) );
+
+		return new Position(lat, lng);
+	}
+
 	/** returns true if {@link #isValidLatitude(double)} and {@link #isValidLongitude(double)} */
 	boolean isValid() {
 		return isValidLatitude(this.latitude) && isValidLongitude(this.longitude);
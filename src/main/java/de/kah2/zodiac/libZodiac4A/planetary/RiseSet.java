@@ -1,31 +1,31 @@
 package de.kah2.zodiac.libZodiac4A.planetary;
 
-import de.kah2.zodiac.nova4jmt.JulianDay;
-import de.kah2.zodiac.nova4jmt.api.LnDate;
-import de.kah2.zodiac.nova4jmt.api.LnRstTime;
-
 import java.time.Instant;
-import java.time.LocalDateTime;
-import java.time.ZonedDateTime;
 
 /**
- * This class contains rise- and set-times managed as {@link Instant}s.
+ * This class contains rise- and set-times. They are kept as epoch seconds and {@link Instant}s are created on first request.
  *
  * @author kahles
  */
 public class RiseSet {
 
-    private final Instant rise, set;
+    /** Marks a missing {@link Instant} when stored as epoch second, see {@link #of(long, long)}. */
+    public static final long NO_INSTANT = Long.MIN_VALUE;
 
-    /**
-     * This constructor is used when rise and set times are calculated by
-     * libNova, which returns a {@link LnRstTime} object containing times in
-     * UTC.
-     */
-    RiseSet(final LnRstTime lnRstTime) {
+    /** Marks a missing {@link RiseSet} (e.g. circumpolar), when stored as epoch seconds. */
+    public static final long NO_RISE_SET = Long.MAX_VALUE;
+
+    private static final long SECONDS_PER_MINUTE = 60;
+
+    // epoch seconds or NO_INSTANT
+    private final long rise, set;
 
-        this.rise = this.getInstantFromJulian(lnRstTime.rise);
-        this.set = this.getInstantFromJulian(lnRstTime.set);
+    // created by the getters - Instant is immutable, so creating one twice by concurrent calls does no harm
+    private Instant riseInstant, setInstant;
+
+    RiseSet(final long riseEpochSecond, final long setEpochSecond) {
+        this.rise = riseEpochSecond;
+        this.set = setEpochSecond;
     }
 
     /**
@@ -36,31 +36,79 @@ public class RiseSet {
      * @param set an UTC set time
      */
     public RiseSet(final Instant rise, final Instant set) {
-        this.rise = rise;
-        this.set = set;
+        this( toEpochSecond(rise), toEpochSecond(set) );
+    }
+
+    /**
+     * Creates a {@link RiseSet} from times stored as epoch seconds.
+     * @param riseEpochSecond the rise time, {@link #NO_INSTANT} if there is none or {@link #NO_RISE_SET}
+     * @param setEpochSecond the set time, {@link #NO_INSTANT} if there is none or {@link #NO_RISE_SET}
+     * @return the {@link RiseSet} or null, if both values are {@link #NO_RISE_SET}
+     * @see #toEpochSecond(Instant)
+     */
+    public static RiseSet of(final long riseEpochSecond, final long setEpochSecond) {
+
+        if (riseEpochSecond == NO_RISE_SET && setEpochSecond == NO_RISE_SET) {
+            return null;
+        }
+
+        return new RiseSet(riseEpochSecond, setEpochSecond);
+    }
+
+    /**
+     * Converts an {@link Instant} for compact storage. Calculated times are exact to the minute, so fractions of seconds get lost.
+     * @return the epoch second of the given {@link Instant} or {@link #NO_INSTANT} if it is null
+     */
+    static long toEpochSecond(final Instant instant) {
+        return instant == null ? NO_INSTANT : instant.getEpochSecond();
+    }
+
+    /**
+     * Converts a rise or set time calculated by libnova (which returns julian dates in UTC) for compact storage. It is truncated to
+     * the minute without creating any date objects.
+     * @return the epoch second of the beginning of the minute containing given julian date
+     */
+    static long toEpochSecond(final double julianDate) {
+
+        final long epochSecond = JulianDateConverter.toEpochSecond(julianDate);
+
+        return Math.floorDiv(epochSecond, SECONDS_PER_MINUTE) * SECONDS_PER_MINUTE;
+    }
+
+    private static Instant toInstant(final long epochSecond) {
+        return epochSecond == NO_INSTANT ? null : Instant.ofEpochSecond(epochSecond);
     }
 
     public Instant getRise() {
-        return this.rise;
+
+        if (this.riseInstant == null) {
+            this.riseInstant = toInstant(this.rise);
+        }
+
+        return this.riseInstant;
     }
 
     public Instant getSet() {
-        return this.set;
-    }
 
-    private Instant getInstantFromJulian(final double julianDay) {
+        if (this.setInstant == null) {
+            this.setInstant = toInstant(this.set);
+        }
+
+        return this.setInstant;
+    }
 
-        final LnDate date = new LnDate();
-        JulianDay.ln_get_date(julianDay, date);
+    /** @return the rise time as seconds since 1970-01-01T00:00Z or {@link Long#MIN_VALUE}, if there is none */
+    public long getRiseEpochSecond() {
+        return this.rise;
+    }
 
-        final ZonedDateTime utcZonedTime = LocalDateTime
-                .of(date.years, date.months, date.days, date.hours, date.minutes)
-                .atZone(PlanetaryDayData.TIME_ZONE_ID_LIBNOVA);
-        return utcZonedTime.toInstant();
+    /** @return the set time as seconds since 1970-01-01T00:00Z or {@link Long#MIN_VALUE}, if there is none */
+    public long getSetEpochSecond() {
+        return this.set;
     }
 
     @Override
     public String toString() {
-        return String.format( "RiseSet[ ^%s, v%s ]",  rise, set );
+        return String.format( "RiseSet[ ^%s, v%s ]",  this.getRise(), this.getSet() );
     }
 }
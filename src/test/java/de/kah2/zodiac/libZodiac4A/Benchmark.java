@@ -5,11 +5,13 @@ import java.time.Instant;
 import java.time.LocalDate;
 
 import de.kah2.zodiac.libZodiac4A.Calendar.Scope;
+import de.kah2.zodiac.libZodiac4A.planetary.LunarEphemeris;
+import de.kah2.zodiac.libZodiac4A.planetary.PlanetaryDayData;
 
 /**
  * This class is used to measure generation time of a {@link Calendar}.
  * It can be used to measure generation of a Calendar for {@link Scope#DAY}, {@link Calendar.Scope#PHASE} and
- * {@link Scope#CYCLE}.
+ * {@link Scope#CYCLE} and the effect of a {@link LunarEphemeris}.
  */
 public class Benchmark {
 
@@ -37,6 +39,63 @@ public class Benchmark {
         }
     }
 
+    /**
+     * Compares calculating {@link PlanetaryDayData} day by day to calculating the whole range at once (single threaded).
+     */
+    private static void benchmarkRange() {
+
+        final MunichLocationProvider locationProvider = new MunichLocationProvider();
+
+        System.out.println("Benchmarking planetary data of " + RANGE + " ...");
+
+        for (int loop = 0; loop < NUMBER_OF_LOOPS; loop ++) {
+
+            Instant start = Instant.now();
+            for (LocalDate date : RANGE) {
+                PlanetaryDayData.calculateFor(date, locationProvider);
+            }
+            System.out.println("Run " + loop + ": per day took " + Duration.between(start, Instant.now()));
+
+            start = Instant.now();
+            PlanetaryDayData.calculateRange(RANGE, locationProvider);
+            System.out.println("Run " + loop + ": range took " + Duration.between(start, Instant.now()));
+        }
+    }
+
+    /**
+     * Compares generating a {@link Calendar} with calculated lunar data to generating it with a new {@link LunarEphemeris}
+     * (including building the table) and to generating it again with the table already built.
+     */
+    private static void benchmarkEphemeris() {
+
+        System.out.println("Benchmarking lunar ephemeris for " + RANGE + " ...");
+
+        for (int loop = 0; loop < NUMBER_OF_LOOPS; loop ++) {
+
+            Instant start = Instant.now();
+            generate(null);
+            System.out.println("Run " + loop + ": calculated took " + Duration.between(start, Instant.now()));
+
+            final LunarEphemeris ephemeris = new LunarEphemeris();
+
+            start = Instant.now();
+            generate(ephemeris);
+            System.out.println("Run " + loop + ": new ephemeris took " + Duration.between(start, Instant.now()));
+
+            start = Instant.now();
+            generate(ephemeris);
+            System.out.println("Run " + loop + ": built ephemeris took " + Duration.between(start, Instant.now()));
+        }
+    }
+
+    private static void generate(final LunarEphemeris ephemeris) {
+
+        final Calendar calendar = new Calendar( RANGE, Scope.DAY, new MunichLocationProvider() );
+        calendar.getGenerator().setMaxThreadCount(MAX_THREADS);
+        calendar.setLunarEphemeris(ephemeris);
+        calendar.startGeneration();
+    }
+
     private static class BenchmarkListener implements ProgressListener {
 
         private final static Instant start = Instant.now();
@@ -53,12 +112,12 @@ public class Benchmark {
 
     /**
      * Launcher method.
-     * @param args one of day, phase or cycle
+     * @param args one of day, phase, cycle, range or ephemeris
      */
     public static void main(String[] args) {
 
         if (args.length != 1) {
-            System.out.println("Wrong number of arguments - use one of \"day\", \"phase\" or \"cycle\"");
+            System.out.println("Wrong number of arguments - use one of \"day\", \"phase\", \"cycle\", \"range\" or \"ephemeris\"");
             System.exit(1);
         } else {
             switch (args[0]) {
@@ -71,6 +130,12 @@ public class Benchmark {
                 case "cycle":
                     benchmark(Scope.CYCLE);
                     break;
+                case "range":
+                    benchmarkRange();
+                    break;
+                case "ephemeris":
+                    benchmarkEphemeris();
+                    break;
                 default:
                     System.out.println("Unknown argument.");
                     System.exit(2);
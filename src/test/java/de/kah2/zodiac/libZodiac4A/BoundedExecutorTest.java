@@ -0,0 +1,88 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+public class BoundedExecutorTest {
+
+    @Test
+    public void testLimitsConcurrentJobs() throws InterruptedException {
+
+        final int limit = 2;
+        final int jobCount = 20;
+
+        final ExecutorService pool = Executors.newFixedThreadPool(8);
+        final BoundedExecutor executor = new BoundedExecutor(pool, limit);
+
+        final AtomicInteger running = new AtomicInteger();
+        final AtomicInteger maxRunning = new AtomicInteger();
+        final CountDownLatch finished = new CountDownLatch(jobCount);
+
+        for (int i = 0; i < jobCount; i++) {
+            executor.execute( () -> {
+                maxRunning.accumulateAndGet( running.incrementAndGet(), Math::max );
+                try {
+                    Thread.sleep(5);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                running.decrementAndGet();
+                finished.countDown();
+            });
+        }
+
+		assertThat(finished.await(5, TimeUnit.SECONDS)).as("All jobs should be run").isTrue();
+		assertThat(maxRunning.get() <= limit).as("Not more than " + limit + " jobs should run at the same time").isTrue();
+
+        pool.shutdown();
+    }
+
+    @Test
+    public void testRejectedJobsAreRun() throws InterruptedException {
+
+        final ExecutorService pool = Executors.newSingleThreadExecutor();
+        final AtomicInteger accepted = new AtomicInteger();
+
+        // accepts only the first job, like a pool shut down meanwhile
+        final BoundedExecutor executor = new BoundedExecutor( job -> {
+            if (accepted.getAndIncrement() > 0) {
+                throw new RejectedExecutionException("shut down");
+            }
+            pool.execute(job);
+        }, 1);
+
+        final CountDownLatch firstStarted = new CountDownLatch(1);
+        final CountDownLatch releaseFirst = new CountDownLatch(1);
+        final CountDownLatch finished = new CountDownLatch(3);
+
+        executor.execute( () -> {
+            firstStarted.countDown();
+            try {
+                releaseFirst.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            finished.countDown();
+        });
+
+		assertThat(firstStarted.await(5, TimeUnit.SECONDS)).as("First job should be started").isTrue();
+
+        // these wait for the first job and get rejected, when it finishes on a worker thread
+        executor.execute(finished::countDown);
+        executor.execute(finished::countDown);
+
+        releaseFirst.countDown();
+
+		assertThat(finished.await(5, TimeUnit.SECONDS)).as("Rejected jobs should be run anyway").isTrue();
+
+        pool.shutdown();
+    }
+}
@@ -8,6 +8,7 @@ import java.time.LocalDate;
 import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.stream.Stream;
 
 public class CalendarDataTest {
 
@@ -26,6 +27,46 @@ public class CalendarDataTest {
 		assertThat(days.size()).as("One day should be imported").isEqualTo(1);
     }
 
+    @Test
+    public void testStreamingImport() {
+        final CalendarData days = new CalendarData();
+
+        final LocalDate start = TestConstantsAndHelpers.SOME_DATE;
+        final DateRange inOrder = new DateRange(start, start.plusDays(99));
+
+        // a single reused object like a database cursor would provide
+        final StreamedDay cursor = new StreamedDay();
+
+        final DateRange imported = days.importDays( inOrder.toList().stream().map(cursor::moveTo).iterator() );
+
+		assertThat(imported.getStart()).as("Start of imported days should be returned").isEqualTo(inOrder.getStart());
+		assertThat(imported.getEnd()).as("End of imported days should be returned").isEqualTo(inOrder.getEnd());
+		assertThat(days.size()).as("All days should be imported").isEqualTo(inOrder.size());
+		assertThat(days.isComplete(inOrder)).as("Days imported in order should be complete").isTrue();
+		assertThat(days.get(start.plusDays(50)).getDate()).as("Each day should keep its date").isEqualTo(start.plusDays(50));
+
+        // out of order with a gap
+        days.importDays( Stream.of( start.minusDays(1) ).map(cursor::moveTo).iterator() );
+        days.importDays( Stream.of( start.plusDays(101), start.plusDays(102) ).map(cursor::moveTo).iterator() );
+
+		assertThat(days.isComplete()).as("Gap should be detected").isFalse();
+		assertThat(days.isComplete(new DateRange(start.minusDays(1), start.plusDays(99)))).as("Prepended day should be covered")
+                .isTrue();
+
+        days.importDays( Stream.of( start.plusDays(100) ).map(cursor::moveTo).iterator() );
+
+		assertThat(days.isComplete()).as("Gap should be closed").isTrue();
+		assertThat(days.importDays( Collections.<DayStorableDataSet>emptyIterator() )).as("Empty import should return null").isNull();
+    }
+
+    private static class StreamedDay extends DayStorableDataSetPojo {
+
+        StreamedDay moveTo(final LocalDate date) {
+            this.setDate(date);
+            return this;
+        }
+    }
+
     @Test
     public void testGet() {
         final DateRange range = new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(3));
@@ -53,6 +94,79 @@ public class CalendarDataTest {
 		assertThat(days.get(afterEnd)).as("Day for " + afterEnd + " should be returned").isNotNull();
     }
 
+    @Test
+    public void testInsertInBothDirectionsWithGaps() {
+        final CalendarData days = new CalendarData();
+
+        final LocalDate start = TestConstantsAndHelpers.SOME_DATE;
+        final LocalDate farFuture = start.plusYears(2);
+        final LocalDate farPast = start.minusYears(2);
+
+        final Day someDay = CalendarGeneratorStub.stubDay(start);
+        days.insert(someDay);
+        days.insert( CalendarGeneratorStub.stubDay(farFuture) );
+        days.insert( CalendarGeneratorStub.stubDay(farPast) );
+        days.insert( CalendarGeneratorStub.stubDay(start) );
+
+		assertThat(days.size()).as("Three days should be contained").isEqualTo(3);
+		assertThat(days.get(start)).as("Existing day shouldn't be replaced").isSameAs(someDay);
+		assertThat(days.get(start.plusDays(1))).as("Gaps should return null").isNull();
+		assertThat(days.getFirst().getDate()).as("First day should be the earliest").isEqualTo(farPast);
+		assertThat(days.getLast().getDate()).as("Last day should be the latest").isEqualTo(farFuture);
+		assertThat(days.allAsList()).as("All days should be listed").hasSize(3);
+		assertThat(days.isComplete()).as("Data with gaps shouldn't be complete").isFalse();
+		assertThat(days.higher(someDay).getDate()).as("Next day should skip the gap").isEqualTo(farFuture);
+		assertThat(days.lower(someDay).getDate()).as("Previous day should skip the gap").isEqualTo(farPast);
+		assertThat(days.higher(new Day(farFuture))).as("There should be no day after the last").isNull();
+		assertThat(days.lower(new Day(farPast))).as("There should be no day before the first").isNull();
+		assertThat(days.toArray()).as("Array should contain all days in order")
+				.containsExactly(days.getFirst(), someDay, days.getLast());
+
+        days.removeBefore(start);
+        days.removeAfter(start);
+
+		assertThat(days.allAsList()).as("Only one day should be left").hasSize(1);
+		assertThat(days.getFirst()).as("First day should skip the gap").isSameAs(someDay);
+		assertThat(days.getLast()).as("Last day should skip the gap").isSameAs(someDay);
+    }
+
+    @Test
+    public void testGetMissingRanges() {
+        final CalendarData days = new CalendarData();
+
+        final LocalDate start = TestConstantsAndHelpers.SOME_DATE;
+        final DateRange rangeExpected = new DateRange(start, start.plusDays(9));
+
+        LinkedList<DateRange> missing = days.getMissingRanges(rangeExpected);
+		assertThat(missing).as("Whole range should be missing").hasSize(1);
+		assertThat(missing.getFirst().isEqual(rangeExpected)).as("Missing range should equal expected range").isTrue();
+
+        // contained: 2-3, 5, 9-10
+        generateDays(days, new DateRange(start.plusDays(2), start.plusDays(3)));
+        generateDays(days, new DateRange(start.plusDays(9), start.plusDays(10)));
+        days.insert( CalendarGeneratorStub.stubDay( start.plusDays(5) ) );
+
+        missing = days.getMissingRanges(rangeExpected);
+		assertThat(missing).as("Three gaps should be found").hasSize(3);
+		assertThat(missing.get(0).isEqual(new DateRange(start, start.plusDays(1)))).as("First gap should be found").isTrue();
+		assertThat(missing.get(1).isEqual(new DateRange(start.plusDays(4), start.plusDays(4)))).as("Second gap should be found").isTrue();
+		assertThat(missing.get(2).isEqual(new DateRange(start.plusDays(6), start.plusDays(8)))).as("Third gap should be found").isTrue();
+		assertThat(days.isComplete()).as("Data with gaps shouldn't be complete").isFalse();
+
+        generateDays(days, rangeExpected);
+
+		assertThat(days.getMissingRanges(rangeExpected)).as("Nothing should be missing").isEmpty();
+		assertThat(days.isComplete()).as("Filled gaps should be complete").isTrue();
+		assertThat(days.isComplete(rangeExpected)).as("Expected range should be complete").isTrue();
+		assertThat(days.isComplete(new DateRange(start, start.plusDays(11)))).as("Range exceeding data shouldn't be complete").isFalse();
+
+        days.removeBefore(start.plusDays(1));
+        days.removeAfter(start.plusDays(9));
+
+		assertThat(days.isComplete(new DateRange(start.plusDays(1), start.plusDays(9)))).as("Remaining range should be complete").isTrue();
+		assertThat(days.getMissingRanges(rangeExpected)).as("Removed days should be missing").hasSize(1);
+    }
+
     @Test
     public void testAll() {
         DateRange range = new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(3));
@@ -70,9 +184,9 @@ public class CalendarDataTest {
         this.testRangeMatchesDays(days.allAsList(), range);
     }
 
-    private void testRangeMatchesDays(LinkedList<Day> days, DateRange expectedRange) {
-		assertThat(days.getFirst().getDate().isEqual(expectedRange.getStart())).as("Start date should match").isTrue();
-		assertThat(days.getLast().getDate().isEqual(expectedRange.getEnd())).as("End date should match").isTrue();
+    private void testRangeMatchesDays(List<Day> days, DateRange expectedRange) {
+		assertThat(days.get(0).getDate().isEqual(expectedRange.getStart())).as("Start date should match").isTrue();
+		assertThat(days.get(days.size() - 1).getDate().isEqual(expectedRange.getEnd())).as("End date should match").isTrue();
     }
 
 
@@ -132,11 +246,11 @@ public class CalendarDataTest {
 
 		assertThat(removed.get(1).getDate().isEqual(initialRange.getStart().plusDays(1))).as("Should remove second").isTrue();
 
-        LinkedList<Day> days = calendarData.allAsList();
+        List<Day> days = calendarData.allAsList();
 
-		assertThat(days.getFirst().getDate().isEqual(laterStart)).as("Calendar should start at new range").isTrue();
+		assertThat(days.get(0).getDate().isEqual(laterStart)).as("Calendar should start at new range").isTrue();
 
-		assertThat(days.getLast().getDate().isEqual(initialRange.getEnd())).as("Calendar should still end at old range").isTrue();
+		assertThat(days.get(days.size() - 1).getDate().isEqual(initialRange.getEnd())).as("Calendar should still end at old range").isTrue();
     }
     
     @Test
@@ -161,11 +275,11 @@ public class CalendarDataTest {
 
 		assertThat(removed.get(1).getDate().isEqual(initialRange.getEnd())).as("Should remove last").isTrue();
 
-        LinkedList<Day> days = calendarData.allAsList();
+        List<Day> days = calendarData.allAsList();
 
-		assertThat(days.getFirst().getDate().isEqual(initialRange.getStart())).as("Calendar should still start at old range").isTrue();
+		assertThat(days.get(0).getDate().isEqual(initialRange.getStart())).as("Calendar should still start at old range").isTrue();
 
-		assertThat(days.getLast().getDate().isEqual(earlierEnd)).as("Calendar should end at new end").isTrue();
+		assertThat(days.get(days.size() - 1).getDate().isEqual(earlierEnd)).as("Calendar should end at new end").isTrue();
     }
 
     private void generateDays(CalendarData days, DateRange rangeToGenerate) {
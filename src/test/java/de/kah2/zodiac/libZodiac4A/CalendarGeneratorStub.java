@@ -22,13 +22,21 @@ public class CalendarGeneratorStub extends CalendarGenerator {
 
 	/**
 	 * Replaces {@link PlanetaryDayData} with {@link PlanetaryDayDataStub} to
-	 * stub libnova.
+	 * stub libnova. A probed visibility matches the stubbed one, so it's ignored.
 	 */
 	@Override
-	Day createCalculatedDay(final LocalDate date) {
+	Day createCalculatedDay(final LocalDate date, final double lunarVisibility) {
 		return stubDay( new MunichLocationProvider(), date);
 	}
 
+	/**
+	 * Uses the visibility of {@link PlanetaryDayDataStub} to match stubbed days.
+	 */
+	@Override
+	double calculateLunarVisibility(final LocalDate date) {
+		return PlanetaryDayDataStub.getFakeLunarVisibility(date);
+	}
+
 	/**
 	 * This creates a day and stubs calculation of {@link PlanetaryDayData}.
 	 */
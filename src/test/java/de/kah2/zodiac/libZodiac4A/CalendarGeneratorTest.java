@@ -7,8 +7,13 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
 
 import de.kah2.zodiac.libZodiac4A.planetary.PlanetaryDayData;
 
@@ -23,7 +28,7 @@ public class CalendarGeneratorTest {
 
         TestConstantsAndHelpers.generateAndWaitFor(generator);
 
-        final LinkedList<Day> generated = generator.getNewlyGenerated();
+        final List<Day> generated = generator.getNewlyGenerated();
 
         for (final LocalDate date : rangeExpected) {
 			assertThat(this.daysContainDate(generated, date)).as("Day for date " + date + " should be generated").isTrue();
@@ -34,6 +39,79 @@ public class CalendarGeneratorTest {
         this.checkListContainsValidCalendarRange(generated);
     }
 
+    @Test
+    public void testExtensionStatesAreOrdered() {
+
+        final DateRange rangeExpected = new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(2));
+        final CalendarGenerator generator = new CalendarStub(rangeExpected, Calendar.Scope.CYCLE).getGenerator();
+
+        final List<ProgressListener.State> states = Collections.synchronizedList(new ArrayList<>());
+
+        generator.getProgressManager().addProgressListener(new ProgressListener() {
+            @Override
+            public void onStateChanged(final State state) {
+                states.add(state);
+            }
+
+            @Override
+            public void onCalculationProgress(final float percent) {}
+        });
+
+        generator.startGeneration();
+
+        final int past = states.indexOf(ProgressListener.State.EXTENDING_PAST);
+        final int future = states.indexOf(ProgressListener.State.EXTENDING_FUTURE);
+        final int counting = states.indexOf(ProgressListener.State.COUNTING);
+
+        assertThat(past).as("Extending past should be signaled").isGreaterThan(-1);
+        assertThat(future).as("Extending future should be signaled after the past is extended").isGreaterThan(past);
+        assertThat(counting).as("Counting should be signaled after extending").isGreaterThan(future);
+    }
+
+    @Test
+    public void testGenerateAsync() {
+
+        final DateRange rangeExpected = new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(2));
+        final CalendarGenerator generator = new CalendarStub(rangeExpected, Calendar.Scope.CYCLE).getGenerator();
+
+        final TestConstantsAndHelpers.LastStateProgressListener listener = new TestConstantsAndHelpers.LastStateProgressListener();
+        generator.getProgressManager().addProgressListener(listener);
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+
+        final List<Day> generated = generator.generateAsync(executor).join();
+
+        executor.shutdown();
+
+		assertThat(listener.getLastState()).as("Future should complete after state changed to FINISHED").isEqualTo(ProgressListener.State.FINISHED);
+		assertThat(generated.get(0).getDate().isAfter(TestConstantsAndHelpers.SOME_DATES_LAST_EXTREME)).as("First generated should not be after last extreme.").isFalse();
+		assertThat(generated.get(generated.size() - 1).getDate().isBefore(TestConstantsAndHelpers.SOME_DATES_NEXT_EXTREME)).as("Last generated should not be before next extreme.").isFalse();
+
+        this.checkListContainsValidCalendarRange(generated);
+    }
+
+    @Test
+    public void testGenerateWithVirtualThreadsEnabled() {
+
+        final boolean isSupported = Runtime.version().feature() >= 21;
+
+		assertThat(CalendarGenerator.setVirtualThreadsEnabled(true)).as("Virtual threads should be used if supported by runtime").isEqualTo(isSupported);
+
+        try {
+            final DateRange rangeExpected = new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(2));
+            final CalendarGenerator generator = new CalendarStub(rangeExpected, Calendar.Scope.CYCLE).getGenerator();
+
+            TestConstantsAndHelpers.generateAndWaitFor(generator);
+
+            this.checkListContainsValidCalendarRange(generator.getNewlyGenerated());
+
+        } finally {
+            CalendarGenerator.setVirtualThreadsEnabled(false);
+        }
+
+		assertThat(CalendarGenerator.isUsingVirtualThreads()).as("Virtual threads should be disabled again").isFalse();
+    }
+
     private boolean daysContainDate(final List<Day> days, final LocalDate date) {
 
         for (final Day day : days) {
@@ -51,11 +129,11 @@ public class CalendarGeneratorTest {
         final CalendarGenerator generator = new CalendarStub(rangeExpected, Calendar.Scope.PHASE).getGenerator();
 
         TestConstantsAndHelpers.generateAndWaitFor(generator);
-        final LinkedList<Day> generated = generator.getNewlyGenerated();
+        final List<Day> generated = generator.getNewlyGenerated();
 
-		assertThat(generated.getFirst().getDate().isEqual(TestConstantsAndHelpers.SOME_DATE.minusDays(1))).as("Calendar data should start one day before expected range").isTrue();
+		assertThat(generated.get(0).getDate().isEqual(TestConstantsAndHelpers.SOME_DATE.minusDays(1))).as("Calendar data should start one day before expected range").isTrue();
 
-		assertThat(generated.getLast().getDate().isEqual(TestConstantsAndHelpers.SOME_DATE.plusDays(1))).as("Calendar data should end one day after expected range").isTrue();
+		assertThat(generated.get(generated.size() - 1).getDate().isEqual(TestConstantsAndHelpers.SOME_DATE.plusDays(1))).as("Calendar data should end one day after expected range").isTrue();
 
         this.checkListContainsValidCalendarRange(generated);
     }
@@ -114,10 +192,10 @@ public class CalendarGeneratorTest {
 
         this.extendAndWait(generator);
 
-        final LinkedList<Day> extended = generator.getNewlyGenerated();
+        final List<Day> extended = generator.getNewlyGenerated();
 
-		assertThat(extended.getFirst().getDate().isAfter(TestConstantsAndHelpers.SOME_DATES_LAST_EXTREME)).as("First generated should not be after last extreme.").isFalse();
-		assertThat(extended.getLast().getDate().isBefore(TestConstantsAndHelpers.SOME_DATES_NEXT_EXTREME)).as("Last generated should not be before next extreme.").isFalse();
+		assertThat(extended.get(0).getDate().isAfter(TestConstantsAndHelpers.SOME_DATES_LAST_EXTREME)).as("First generated should not be after last extreme.").isFalse();
+		assertThat(extended.get(extended.size() - 1).getDate().isBefore(TestConstantsAndHelpers.SOME_DATES_NEXT_EXTREME)).as("Last generated should not be before next extreme.").isFalse();
 
         this.checkListContainsValidCalendarRange(generator.getDays().allAsList());
     }
@@ -138,31 +216,28 @@ public class CalendarGeneratorTest {
 
 		assertThat(generator.getNewlyGenerated().size()).as("Nothing should be extended when we already have extremes at start and end of expected range").isEqualTo(0);
 
-        // Generate small range, extend to cycle with overhead from using eight threads
+        // Generate small range, extend to cycle - lunar extremes are probed, so nothing behind them should be calculated
         // Test if nothing "unwanted" is extended when extending again
 
         generator = new CalendarStub(
                 new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(2)), Calendar.Scope.CYCLE ).getGenerator();
 
-        final int threadCount = 8;
-
-        generator.setMaxThreadCount(threadCount);
-
         generator.importDays(
                 CalendarGeneratorStub.stubDayStorableDataSets( generator.getCalendar().getRangeExpected() ) );
 
         this.extendAndWait(generator);
 
-        final LinkedList<Day> lastGenerated = generator.getNewlyGenerated();
+        final List<Day> lastGenerated = generator.getNewlyGenerated();
 
-		assertThat(lastGenerated.size()).as("Extending should generate two sets of days").isEqualTo(2 * threadCount);
+		assertThat(lastGenerated.get(0).getDate()).as("Extending should start one day before last extreme").isEqualTo(TestConstantsAndHelpers.SOME_DATES_LAST_EXTREME.minusDays(1));
+		assertThat(lastGenerated.get(lastGenerated.size() - 1).getDate()).as("Extending should end one day after next extreme").isEqualTo(TestConstantsAndHelpers.SOME_DATES_NEXT_EXTREME.plusDays(1));
 
         this.extendAndWait(generator);
 
-        final LinkedList<Day> after2ndExtension = generator.getNewlyGenerated();
+        final List<Day> after2ndExtension = generator.getNewlyGenerated();
 		assertThat(after2ndExtension.size()).as("Extending a second time shouldn't generate anything").isEqualTo(lastGenerated.size());
-		assertThat(lastGenerated.getFirst().getDate().isEqual(after2ndExtension.getFirst().getDate())).as("Newly generated should start at same day as last time of extension").isTrue();
-		assertThat(lastGenerated.getLast().getDate().isEqual(after2ndExtension.getLast().getDate())).as("Newly generated should end at same day as last time of extension").isTrue();
+		assertThat(lastGenerated.get(0).getDate().isEqual(after2ndExtension.get(0).getDate())).as("Newly generated should start at same day as last time of extension").isTrue();
+		assertThat(lastGenerated.get(lastGenerated.size() - 1).getDate().isEqual(after2ndExtension.get(after2ndExtension.size() - 1).getDate())).as("Newly generated should end at same day as last time of extension").isTrue();
     }
 
     private void extendAndWait(CalendarGenerator generator) {
@@ -171,7 +246,7 @@ public class CalendarGeneratorTest {
 
         generator.getProgressManager().addProgressListener(listener);
 
-        generator.startExtending(true);
+        generator.startExtending();
 
         while (listener.getLastState() != ProgressListener.State.FINISHED) {
             try {
@@ -218,6 +293,83 @@ public class CalendarGeneratorTest {
 		assertThat(generatedCount).as("Nothing should be generated when cycle around expectedRange is loaded").isEqualTo(0);
     }
 
+    @Test
+    public void testIncrementalImportEqualsCompleteImport() {
+
+        final LocalDate start = TestConstantsAndHelpers.SOME_DATES_LAST_EXTREME.minusDays(20);
+        final DateRange all = new DateRange(start, start.plusDays(44));
+
+        final CalendarGenerator complete = new CalendarStub(all, Calendar.Scope.CYCLE).getGenerator();
+        complete.importDays( CalendarGeneratorStub.stubDayStorableDataSets(all) );
+
+        // import middle first, then add days on both sides
+        final CalendarGenerator incremental = new CalendarStub(all, Calendar.Scope.CYCLE).getGenerator();
+        incremental.importDays( CalendarGeneratorStub.stubDayStorableDataSets(new DateRange(start.plusDays(15), start.plusDays(29))) );
+        incremental.importDays( CalendarGeneratorStub.stubDayStorableDataSets(new DateRange(start, start.plusDays(14))) );
+        incremental.importDays( CalendarGeneratorStub.stubDayStorableDataSets(new DateRange(start.plusDays(30), all.getEnd())) );
+
+        for (LocalDate date : all) {
+            final PlanetaryDayData expected = complete.getDays().get(date).getPlanetaryData();
+            final PlanetaryDayData actual = incremental.getDays().get(date).getPlanetaryData();
+
+			assertThat(actual.getLunarPhase()).as("Lunar phase of " + date).isEqualTo(expected.getLunarPhase());
+			assertThat(actual.getDaysSinceLastMaxPhase()).as("daysSinceLast of " + date).isEqualTo(expected.getDaysSinceLastMaxPhase());
+			assertThat(actual.getDaysUntilNextMaxPhase()).as("daysUntilNext of " + date).isEqualTo(expected.getDaysUntilNextMaxPhase());
+        }
+    }
+
+    @Test
+    public void testParallelImportEqualsSequentialImport() {
+
+        final LocalDate start = TestConstantsAndHelpers.SOME_DATE;
+        final DateRange all = new DateRange(start, start.plusYears(10));
+
+        final CalendarGenerator sequential = new CalendarStub(all, Calendar.Scope.CYCLE).getGenerator();
+        sequential.importDays( CalendarGeneratorStub.stubDayStorableDataSets(all) );
+
+        // chunks must be merged, even if they aren't in order
+        final List<DayStorableDataSet> unordered = new ArrayList<>( CalendarGeneratorStub.stubDayStorableDataSets(all) );
+        Collections.reverse(unordered);
+
+        final CalendarGenerator parallel = new CalendarStub(all, Calendar.Scope.CYCLE).getGenerator();
+        parallel.importDaysInParallel(unordered);
+
+        assertThat(parallel.getDays().size()).as("All days should be imported").isEqualTo(all.size());
+        assertThat(parallel.getDays().isComplete(all)).as("Imported days should have no gaps").isTrue();
+
+        for (LocalDate date : all) {
+            final PlanetaryDayData expected = sequential.getDays().get(date).getPlanetaryData();
+            final PlanetaryDayData actual = parallel.getDays().get(date).getPlanetaryData();
+
+            assertThat(actual.getLunarPhase()).as("Lunar phase of " + date).isEqualTo(expected.getLunarPhase());
+            assertThat(actual.getDaysSinceLastMaxPhase()).as("daysSinceLast of " + date).isEqualTo(expected.getDaysSinceLastMaxPhase());
+            assertThat(actual.getDaysUntilNextMaxPhase()).as("daysUntilNext of " + date).isEqualTo(expected.getDaysUntilNextMaxPhase());
+        }
+    }
+
+    @Test
+    public void testParallelImportOnPoolThread() throws Exception {
+
+        final LocalDate start = TestConstantsAndHelpers.SOME_DATE;
+        final DateRange all = new DateRange(start, start.plusYears(10));
+
+        // the only thread of the pool imports, so helpers never get a thread
+        final ExecutorService pool = Executors.newSingleThreadExecutor();
+        CalendarGenerator.setSharedExecutor(pool);
+
+        try {
+            final CalendarGenerator generator = new CalendarStub(all, Calendar.Scope.CYCLE).getGenerator();
+
+            pool.submit( () -> generator.importDaysInParallel( CalendarGeneratorStub.stubDayStorableDataSets(all) ) )
+                    .get(10, TimeUnit.SECONDS);
+
+            assertThat(generator.getDays().isComplete(all)).as("All days should be imported by the pool thread").isTrue();
+        } finally {
+            CalendarGenerator.setSharedExecutor(null);
+            pool.shutdown();
+        }
+    }
+
     @Test
     public void testUpdateLunarPhases() {
         final DateRange range = new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(3) );
@@ -247,7 +399,7 @@ public class CalendarGeneratorTest {
 
     private LinkedList<Day> getValidDays(CalendarGenerator generator) {
 
-        final LinkedList<Day> days = generator.getDays().allAsList();
+        final LinkedList<Day> days = new LinkedList<>( generator.getDays().allAsList() );
 
         // All days except first and last should be valid / have a lunar phase
         days.removeFirst();
@@ -269,7 +421,15 @@ public class CalendarGeneratorTest {
 
         TestConstantsAndHelpers.generateAndWaitFor(generator);
 
-        LinkedList<Day> days = generator.getNewlyGenerated();
+        LinkedList<Day> days = new LinkedList<>( generator.getNewlyGenerated() );
+
+        // Extension may calculate more than one cycle in each direction, but known extremes have to be recognized
+        for (Day day : days) {
+            if ( day.getDate().isEqual(TestConstantsAndHelpers.SOME_DATES_LAST_EXTREME)
+                    || day.getDate().isEqual(TestConstantsAndHelpers.SOME_DATES_NEXT_EXTREME) ) {
+				assertThat(this.isLunarExtreme(day)).as(day.getDate() + " should be lunar extreme").isTrue();
+            }
+        }
 
         // testing "since last" ...
 
@@ -290,7 +450,7 @@ public class CalendarGeneratorTest {
 
             actualDay = days.pollFirst();
 
-            if (actualDay != null && actualDay.getDate().isEqual( TestConstantsAndHelpers.SOME_DATES_NEXT_EXTREME)) {
+            if (actualDay != null && this.isLunarExtreme(actualDay)) {
                 count = 0;
             } else {
                 count++;
@@ -299,7 +459,7 @@ public class CalendarGeneratorTest {
 
         // testing "until next" ...
 
-        days = generator.getNewlyGenerated();
+        days = new LinkedList<>( generator.getNewlyGenerated() );
 
         actualDay = days.pollLast();
 
@@ -318,7 +478,7 @@ public class CalendarGeneratorTest {
 
             actualDay = days.pollLast();
 
-            if (actualDay != null && actualDay.getDate().isEqual( TestConstantsAndHelpers.SOME_DATES_LAST_EXTREME)) {
+            if (actualDay != null && this.isLunarExtreme(actualDay)) {
                 count = 0;
             } else {
                 count++;
@@ -326,6 +486,21 @@ public class CalendarGeneratorTest {
         }
     }
 
+    @Test
+    public void testPredictDaysToLunarExtreme() {
+
+        final double halfCycle = CalendarGenerator.SYNODIC_MONTH_DAYS / 2;
+
+		assertThat(Math.abs(CalendarGenerator.predictDaysToLunarExtreme(0, 0.01) - halfCycle) < 1).as("Shortly after new moon, full moon should be about half a cycle ahead").isTrue();
+		assertThat(CalendarGenerator.predictDaysToLunarExtreme(0.98, 0.99) < 1).as("Shortly before full moon, it should be less than a day ahead").isTrue();
+		assertThat(Math.abs(CalendarGenerator.predictDaysToLunarExtreme(0.6, 0.5) - halfCycle / 2) < 0.01).as("At half visibility and decreasing, new moon should be a quarter cycle ahead").isTrue();
+		assertThat(CalendarGenerator.predictDaysToLunarExtreme(0.02, 0.01) < 1).as("Shortly before new moon, it should be less than a day ahead").isTrue();
+    }
+
+    private boolean isLunarExtreme(Day day) {
+        return day.getPlanetaryData().getLunarPhase() != null && day.getPlanetaryData().getLunarPhase().isLunarExtreme();
+    }
+
     @Test
     public void testGetRangeNeededToCalculateForScopeDay() {
 
@@ -5,8 +5,13 @@ import static org.assertj.core.api.Assertions.assertThat;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ConcurrentModificationException;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
 
 import de.kah2.zodiac.libZodiac4A.Calendar.Scope;
 
@@ -25,6 +30,87 @@ public class CalendarTest {
 		assertThat(calendar.getValidDays().size()).as("Should return all three days").isEqualTo(3);
 	}
 
+	@Test
+	public void testSnapshotIsReadableDuringGeneration() throws InterruptedException {
+
+		final DateRange importedRange = new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(2) );
+		final DateRange expectedRange = new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(5) );
+		final Calendar calendar = new CalendarStub(expectedRange, Scope.DAY);
+
+		assertThat(calendar.getSnapshot().getAllDays()).as("Snapshot of empty calendar should be empty").isEmpty();
+
+		calendar.importDays( CalendarGeneratorStub.stubDayStorableDataSets(importedRange) );
+
+		final CalendarSnapshot imported = calendar.getSnapshot();
+		assertThat(imported.getAllDays()).as("Snapshot should contain imported days").hasSize(3);
+		assertThat(imported.isComplete(importedRange)).as("Snapshot should contain imported range").isTrue();
+
+		// hold back the steps between calculations to keep the calendar busy
+		final BlockingQueue<Runnable> heldSteps = new LinkedBlockingQueue<>();
+		final CompletableFuture<List<Day>> generation = calendar.generateAsync(heldSteps::add);
+
+		try {
+			calendar.getAllDays();
+			assertThat(false).as("Reading days during generation should throw exception").isTrue();
+		} catch (ConcurrentModificationException e) {
+			// expected
+		}
+
+		assertThat(calendar.getSnapshot()).as("Snapshot shouldn't change during generation").isSameAs(imported);
+		assertThat(calendar.getSnapshot().get(importedRange.getEnd())).as("Imported days should be readable").isNotNull();
+		assertThat(calendar.getSnapshot().get(expectedRange.getEnd())).as("Generated days shouldn't be visible yet").isNull();
+
+		while (!generation.isDone()) {
+			final Runnable step = heldSteps.poll(5, TimeUnit.SECONDS);
+			assertThat(step).as("Generation should continue").isNotNull();
+			step.run();
+		}
+
+		final CalendarSnapshot generated = calendar.getSnapshot();
+		assertThat(generated.getVersion()).as("New snapshot should be published").isGreaterThan(imported.getVersion());
+		assertThat(calendar.getSnapshot()).as("Snapshot should only be taken once per change").isSameAs(generated);
+		assertThat(generated.isComplete(expectedRange)).as("New snapshot should contain expected range").isTrue();
+		assertThat(generated.getValidDays()).as("All days should be valid").hasSize(6);
+	}
+
+	@Test
+	public void testSnapshotDaysDontChangeDuringGeneration() throws InterruptedException {
+
+		final DateRange importedRange = new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(2) );
+		final DateRange expectedRange = new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(5) );
+		final Calendar calendar = new CalendarStub(expectedRange, Scope.PHASE);
+
+		calendar.importDays( CalendarGeneratorStub.stubDayStorableDataSets(importedRange) );
+
+		final CalendarSnapshot imported = calendar.getSnapshot();
+
+		// the last imported day gets its lunar phase, when the day after it is generated
+		final LocalDate edge = importedRange.getEnd();
+		final Day liveEdge = calendar.get(edge);
+
+		assertThat(imported.get(edge).getPlanetaryData().getLunarPhase()).as("Last imported day should have no lunar phase").isNull();
+
+		final BlockingQueue<Runnable> heldSteps = new LinkedBlockingQueue<>();
+		final CompletableFuture<List<Day>> generation = calendar.generateAsync(heldSteps::add);
+
+		while (!generation.isDone()) {
+			final Runnable step = heldSteps.poll(5, TimeUnit.SECONDS);
+			assertThat(step).as("Generation should continue").isNotNull();
+			step.run();
+
+			assertThat(imported.get(edge).getPlanetaryData().getLunarPhase()).as("Snapshot shouldn't change during generation").isNull();
+		}
+
+		assertThat(liveEdge.getPlanetaryData().getLunarPhase()).as("Calendar should update the last imported day").isNotNull();
+		assertThat(imported.get(edge).getPlanetaryData().getLunarPhase()).as("Old snapshot should keep its values").isNull();
+
+		final CalendarSnapshot generated = calendar.getSnapshot();
+		final LocalDate unchanged = importedRange.getStart().plusDays(1);
+
+		assertThat(generated.get(edge).getPlanetaryData().getLunarPhase()).as("New snapshot should contain updated values").isNotNull();
+		assertThat(generated.get(unchanged)).as("Unchanged days should be shared by both snapshots").isSameAs(imported.get(unchanged));
+	}
+
 	@Test
 	public void testGetValidDaysReturnsRightRangeForScopePhase() {
 
@@ -37,13 +123,13 @@ public class CalendarTest {
 
 		calendar.importDays( CalendarGeneratorStub.stubDayStorableDataSets(rangeToGenerate) );
 
-		final LinkedList<Day> validDays = calendar.getValidDays();
+		final List<Day> validDays = calendar.getValidDays();
 
 		assertThat(validDays.size()).as("Should return three days").isEqualTo(3);
-		assertThat(validDays.getFirst().getDate().isEqual(expectedRange.getStart())).as("Should return first of expected range").isTrue();
-		assertThat(validDays.getFirst().getPlanetaryData().getLunarPhase()).as("First should have lunar phase").isNotNull();
-		assertThat(validDays.getLast().getDate().isEqual(expectedRange.getEnd())).as("Should return last of expected range").isTrue();
-		assertThat(validDays.getLast().getPlanetaryData().getLunarPhase()).as("Last should have lunar phase").isNotNull();
+		assertThat(validDays.get(0).getDate().isEqual(expectedRange.getStart())).as("Should return first of expected range").isTrue();
+		assertThat(validDays.get(0).getPlanetaryData().getLunarPhase()).as("First should have lunar phase").isNotNull();
+		assertThat(validDays.get(validDays.size() - 1).getDate().isEqual(expectedRange.getEnd())).as("Should return last of expected range").isTrue();
+		assertThat(validDays.get(validDays.size() - 1).getPlanetaryData().getLunarPhase()).as("Last should have lunar phase").isNotNull();
 	}
 
 	@Test
@@ -58,27 +144,27 @@ public class CalendarTest {
 
         calendar.importDays( CalendarGeneratorStub.stubDayStorableDataSets(rangeToGenerate) );
 
-		LinkedList<Day> validDays = calendar.getValidDays();
+		List<Day> validDays = calendar.getValidDays();
 
-		assertThat(validDays.getFirst().getDate().isEqual(TestConstantsAndHelpers.SOME_DATES_LAST_EXTREME)).as("Should start at last extreme").isTrue();
+		assertThat(validDays.get(0).getDate().isEqual(TestConstantsAndHelpers.SOME_DATES_LAST_EXTREME)).as("Should start at last extreme").isTrue();
 
-		assertThat(validDays.getFirst().getPlanetaryData().getLunarPhase()).as("First should have lunar phase").isNotNull();
+		assertThat(validDays.get(0).getPlanetaryData().getLunarPhase()).as("First should have lunar phase").isNotNull();
 
-		assertThat(validDays.getFirst().getPlanetaryData().getLunarPhase().isLunarExtreme()).as("First should be lunar extreme").isTrue();
+		assertThat(validDays.get(0).getPlanetaryData().getLunarPhase().isLunarExtreme()).as("First should be lunar extreme").isTrue();
 
-		assertThat(validDays.getFirst().getPlanetaryData().getDaysSinceLastMaxPhase()).as("First should have daysSinceLast").isEqualTo(0);
+		assertThat(validDays.get(0).getPlanetaryData().getDaysSinceLastMaxPhase()).as("First should have daysSinceLast").isEqualTo(0);
 
-		assertThat(validDays.getFirst().getPlanetaryData().getDaysUntilNextMaxPhase()).as("First should have daysUntilNext").isEqualTo(0);
+		assertThat(validDays.get(0).getPlanetaryData().getDaysUntilNextMaxPhase()).as("First should have daysUntilNext").isEqualTo(0);
 
-		assertThat(validDays.getLast().getDate().isEqual(TestConstantsAndHelpers.SOME_DATES_NEXT_EXTREME)).as("Should end at next extreme").isTrue();
+		assertThat(validDays.get(validDays.size() - 1).getDate().isEqual(TestConstantsAndHelpers.SOME_DATES_NEXT_EXTREME)).as("Should end at next extreme").isTrue();
 
-		assertThat(validDays.getLast().getPlanetaryData().getLunarPhase()).as("Last should have lunar phase").isNotNull();
+		assertThat(validDays.get(validDays.size() - 1).getPlanetaryData().getLunarPhase()).as("Last should have lunar phase").isNotNull();
 
-		assertThat(validDays.getLast().getPlanetaryData().getLunarPhase().isLunarExtreme()).as("Last should be lunar extreme").isTrue();
+		assertThat(validDays.get(validDays.size() - 1).getPlanetaryData().getLunarPhase().isLunarExtreme()).as("Last should be lunar extreme").isTrue();
 
-		assertThat(validDays.getLast().getPlanetaryData().getDaysSinceLastMaxPhase()).as("Last should have daysSinceLast").isEqualTo(0);
+		assertThat(validDays.get(validDays.size() - 1).getPlanetaryData().getDaysSinceLastMaxPhase()).as("Last should have daysSinceLast").isEqualTo(0);
 
-		assertThat(validDays.getLast().getPlanetaryData().getDaysUntilNextMaxPhase()).as("Last should have daysUntilNext").isEqualTo(0);
+		assertThat(validDays.get(validDays.size() - 1).getPlanetaryData().getDaysUntilNextMaxPhase()).as("Last should have daysUntilNext").isEqualTo(0);
 
 		// test what happens, when more valid days exist
 		final LinkedList<DayStorableDataSet> largerThanCycle = new LinkedList<>();
@@ -113,8 +199,8 @@ public class CalendarTest {
 
 		validDays = calendar.getValidDays();
 
-		assertThat(validDays.getFirst().getDate().isEqual(firstValid.getDate())).as("Should start at first valid day").isTrue();
-		assertThat(validDays.getLast().getDate().isEqual(lastValid.getDate())).as("Should end at last valid day").isTrue();
+		assertThat(validDays.get(0).getDate().isEqual(firstValid.getDate())).as("Should start at first valid day").isTrue();
+		assertThat(validDays.get(validDays.size() - 1).getDate().isEqual(lastValid.getDate())).as("Should end at last valid day").isTrue();
 	}
 
 	@Test
@@ -208,23 +294,23 @@ public class CalendarTest {
 		calendar.setRangeExpected(smallerRange);
 		calendar.removeOverhead(true);
 
-		LinkedList<Day> days = calendar.getAllDays();
+		List<Day> days = calendar.getAllDays();
 
 		switch (scope) {
 
 			case DAY:
-				assertThat(days.getFirst().getDate().isEqual(smallerRange.getStart())).as("DAY: Calendar should start at expected range").isTrue();
-				assertThat(days.getLast().getDate().isEqual(smallerRange.getEnd())).as("DAY: Calendar should end at expected range").isTrue();
+				assertThat(days.get(0).getDate().isEqual(smallerRange.getStart())).as("DAY: Calendar should start at expected range").isTrue();
+				assertThat(days.get(days.size() - 1).getDate().isEqual(smallerRange.getEnd())).as("DAY: Calendar should end at expected range").isTrue();
 				break;
 
 			case PHASE:
-				assertThat(days.getFirst().getDate().isEqual(smallerRange.getStart().minusDays(1))).as("PHASE: Calendar should start one day before expected range").isTrue();
-				assertThat(days.getLast().getDate().isEqual(smallerRange.getEnd().plusDays(1))).as("PHASE: Calendar should end one day after expected range").isTrue();
+				assertThat(days.get(0).getDate().isEqual(smallerRange.getStart().minusDays(1))).as("PHASE: Calendar should start one day before expected range").isTrue();
+				assertThat(days.get(days.size() - 1).getDate().isEqual(smallerRange.getEnd().plusDays(1))).as("PHASE: Calendar should end one day after expected range").isTrue();
 				break;
 
 			case CYCLE:
-				assertThat(days.getFirst().getDate().isEqual(TestConstantsAndHelpers.SOME_DATES_LAST_EXTREME.minusDays(1))).as("CYCLE: Calendar should start one day before last lunar extreme").isTrue();
-				assertThat(days.getLast().getDate().isEqual(TestConstantsAndHelpers.SOME_DATES_NEXT_EXTREME.plusDays(1))).as("PHASE: Calendar should end one day after next lunar extreme").isTrue();
+				assertThat(days.get(0).getDate().isEqual(TestConstantsAndHelpers.SOME_DATES_LAST_EXTREME.minusDays(1))).as("CYCLE: Calendar should start one day before last lunar extreme").isTrue();
+				assertThat(days.get(days.size() - 1).getDate().isEqual(TestConstantsAndHelpers.SOME_DATES_NEXT_EXTREME.plusDays(1))).as("PHASE: Calendar should end one day after next lunar extreme").isTrue();
 				break;
 		}
 	}
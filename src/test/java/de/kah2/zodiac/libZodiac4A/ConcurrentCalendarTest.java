@@ -0,0 +1,103 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import de.kah2.zodiac.libZodiac4A.Calendar.Scope;
+
+public class ConcurrentCalendarTest {
+
+    @Test
+    public void testParallelGenerationOfDisjointRanges() throws Exception {
+
+        final ConcurrentCalendar calendar = new ConcurrentCalendar(Scope.PHASE, range -> new CalendarStub(range, Scope.PHASE));
+
+        final int rangeCount = 4;
+        final int daysPerRange = 5;
+
+        final ExecutorService requests = Executors.newFixedThreadPool(rangeCount);
+        final List<Future<List<Day>>> results = new ArrayList<>();
+
+        for (int i = 0; i < rangeCount; i++) {
+            final DateRange range = new DateRange(
+                    TestConstantsAndHelpers.SOME_DATE.plusDays((long) i * daysPerRange),
+                    TestConstantsAndHelpers.SOME_DATE.plusDays((long) i * daysPerRange + daysPerRange - 1) );
+            results.add( requests.submit( () -> calendar.generate(range) ) );
+        }
+
+        for (Future<List<Day>> result : results) {
+			assertThat(result.get().isEmpty()).as("Each generation should calculate days").isFalse();
+        }
+
+        requests.shutdown();
+
+        final DateRange all = new DateRange( TestConstantsAndHelpers.SOME_DATE,
+                TestConstantsAndHelpers.SOME_DATE.plusDays(rangeCount * daysPerRange - 1) );
+
+		assertThat(calendar.isComplete(all)).as("All ranges should be contained").isTrue();
+		assertThat(calendar.isComplete(new DateRange(all.getStart(), all.getEnd().plusDays(2)))).as("Range exceeding data shouldn't be complete").isFalse();
+
+        for (Day day : calendar.getDays(all)) {
+			assertThat(day.getPlanetaryData().getLunarPhase()).as(day.getDate() + " should have lunar phase").isNotNull();
+        }
+    }
+
+    @Test
+    public void testImportKeepsMoreCompleteDays() {
+
+        final DateRange range = new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(4) );
+        final ConcurrentCalendar calendar = new ConcurrentCalendar(Scope.PHASE, r -> new CalendarStub(r, Scope.PHASE));
+
+        calendar.importDays( CalendarGeneratorStub.stubDayStorableDataSets(range) );
+
+        final Day secondToLast = calendar.get(range.getEnd().minusDays(1));
+		assertThat(secondToLast.getPlanetaryData().getLunarPhase()).as("Imported day should have lunar phase").isNotNull();
+
+        // the days around this one reach just until secondToLast, which gets no lunar phase without its previous day
+        final LocalDate distant = secondToLast.getDate().plusDays(16);
+        calendar.importDays( CalendarGeneratorStub.stubDayStorableDataSets(new DateRange(distant, distant)) );
+
+		assertThat(calendar.get(secondToLast.getDate())).as("Day with more data should be kept").isSameAs(secondToLast);
+		assertThat(calendar.size()).as("All days should be contained once").isEqualTo(range.size() + 1);
+    }
+
+    @Test
+    public void testImportOfAdjacentRangesUpdatesSeam() {
+
+        final DateRange first = new DateRange( TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(4) );
+        final DateRange second = new DateRange( first.getEnd().plusDays(1), first.getEnd().plusDays(5) );
+        final ConcurrentCalendar calendar = new ConcurrentCalendar(Scope.PHASE, r -> new CalendarStub(r, Scope.PHASE));
+
+        calendar.importDays( CalendarGeneratorStub.stubDayStorableDataSets(first) );
+
+        final Day lastOfFirst = calendar.get(first.getEnd());
+		assertThat(lastOfFirst.getPlanetaryData().getLunarPhase()).as("Last day shouldn't have lunar phase without next day").isNull();
+
+        // in reverse order, so the range must not be taken from first and last element
+        final List<DayStorableDataSet> secondDays = CalendarGeneratorStub.stubDayStorableDataSets(second);
+        Collections.reverse(secondDays);
+
+        calendar.importDays(secondDays);
+
+		assertThat(calendar.get(first.getEnd()).getPlanetaryData().getLunarPhase()).as("Last day of first import should get lunar phase").isNotNull();
+		assertThat(calendar.get(second.getStart()).getPlanetaryData().getLunarPhase()).as("First day of second import should have lunar phase").isNotNull();
+		assertThat(lastOfFirst.getPlanetaryData().getLunarPhase()).as("Contained days shouldn't be modified").isNull();
+
+        // the same data imported again replaces the contained days
+        final Day reimported = calendar.get(second.getStart());
+        calendar.importDays( CalendarGeneratorStub.stubDayStorableDataSets(new DateRange(reimported.getDate(), reimported.getDate())) );
+
+		assertThat(calendar.get(reimported.getDate())).as("Newer day should replace one with equal data").isNotSameAs(reimported);
+		assertThat(calendar.get(reimported.getDate()).getPlanetaryData().getLunarPhase()).as("Reimported day should have lunar phase").isNotNull();
+		assertThat(calendar.isComplete(new DateRange(first.getStart(), second.getEnd()))).as("Both ranges should be contained").isTrue();
+    }
+}
@@ -0,0 +1,107 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import de.kah2.zodiac.libZodiac4A.Calendar.Scope;
+import de.kah2.zodiac.libZodiac4A.planetary.PlanetaryDayData;
+import de.kah2.zodiac.libZodiac4A.planetary.RiseSet;
+
+public class DayFileTest {
+
+    @Test
+    public void testWrittenDaysCanBeImported() throws IOException {
+
+        final DateRange range = new DateRange(TestConstantsAndHelpers.SOME_DATE, TestConstantsAndHelpers.SOME_DATE.plusDays(9));
+
+        final Calendar calculated = new Calendar(range, Scope.PHASE, new MunichLocationProvider());
+        calculated.startGeneration();
+
+        final Path file = Files.createTempFile("days", ".bin");
+
+        try {
+            DayFile.write(file, calculated);
+
+            final List<DayStorableDataSet> mapped = DayFile.map(file);
+
+            assertThat(Files.size(file)).as("File should have fixed record size")
+                    .isEqualTo(8L + (long) mapped.size() * DayFile.RECORD_SIZE);
+
+            final Calendar imported = new Calendar(range, Scope.PHASE, new MunichLocationProvider());
+            imported.importDays(mapped);
+
+            final List<Day> expectedDays = calculated.getAllDays();
+            final List<Day> importedDays = imported.getAllDays();
+
+            assertThat(importedDays).as("All days should be imported").hasSize(expectedDays.size());
+
+            for (int i = 0; i < expectedDays.size(); i++) {
+
+                final PlanetaryDayData expected = expectedDays.get(i).getPlanetaryData();
+                final PlanetaryDayData actual = importedDays.get(i).getPlanetaryData();
+
+                assertThat(importedDays.get(i).getDate()).as("Date should be restored")
+                        .isEqualTo(expectedDays.get(i).getDate());
+                assertThat(actual.getLunarVisibility()).as("Lunar visibility should be restored")
+                        .isEqualTo(expected.getLunarVisibility());
+                assertThat(actual.getLunarLongitude()).as("Lunar longitude should be restored")
+                        .isEqualTo(expected.getLunarLongitude());
+                assertThat(actual.getSolarRiseSet().getRise()).as("Solar rise should be restored")
+                        .isEqualTo(expected.getSolarRiseSet().getRise());
+                assertThat(actual.getLunarRiseSet().getSet()).as("Lunar set should be restored")
+                        .isEqualTo(expected.getLunarRiseSet().getSet());
+                assertThat(actual.getLunarPhase()).as("Lunar phase should be calculated after import")
+                        .isEqualTo(expected.getLunarPhase());
+            }
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testMissingRiseSetIsKept() throws IOException {
+
+        final DayStorableDataSetPojo circumpolar = new DayStorableDataSetPojo(TestConstantsAndHelpers.SOME_DATE);
+        circumpolar.setLunarRiseSet( new RiseSet(null, null) );
+
+        final Path file = Files.createTempFile("days", ".bin");
+
+        try {
+            DayFile.write(file, List.of(circumpolar));
+
+            final DayStorableDataSet mapped = DayFile.map(file).get(0);
+
+            assertThat(mapped.getSolarRiseSet()).as("Missing rise and set should be kept").isNull();
+            assertThat(mapped.getLunarRiseSet().getRise()).as("Missing rise should be kept").isNull();
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    @Test
+    public void testInvalidFileIsRejected() throws IOException {
+
+        final Path file = Files.createTempFile("days", ".bin");
+
+        try {
+            Files.write(file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8 });
+
+            DayFile.map(file);
+
+            assertThat(false).as("Mapping an invalid file should throw an exception").isTrue();
+
+        } catch (IOException e) {
+
+            assertThat(e.getMessage().startsWith("Not a day file")).as("Invalid file should be reported").isTrue();
+
+        } finally {
+            Files.delete(file);
+        }
+    }
+}
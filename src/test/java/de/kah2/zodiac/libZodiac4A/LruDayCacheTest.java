@@ -0,0 +1,114 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+import de.kah2.zodiac.libZodiac4A.Calendar.Scope;
+import de.kah2.zodiac.libZodiac4A.planetary.LunarEphemeris;
+import de.kah2.zodiac.libZodiac4A.planetary.Position;
+
+public class LruDayCacheTest {
+
+    private final static LocalDate DATE = TestConstantsAndHelpers.SOME_DATE;
+
+    @Test
+    public void testLeastRecentlyUsedDayIsEvicted() {
+
+        final LruDayCache cache = new LruDayCache(2);
+        final MunichLocationProvider munich = new MunichLocationProvider();
+
+        cache.put( munich, new DayStorableDataSetPojo(DATE) );
+        cache.put( munich, new DayStorableDataSetPojo(DATE.plusDays(1)) );
+
+        // makes the first day the most recently used one
+        cache.get(munich, DATE);
+
+        cache.put( munich, new DayStorableDataSetPojo(DATE.plusDays(2)) );
+
+        assertThat(cache.size()).as("Cache should not exceed its maximum size").isEqualTo(2);
+        assertThat(cache.get(munich, DATE)).as("Recently used day should be kept").isNotNull();
+        assertThat(cache.get(munich, DATE.plusDays(1))).as("Least recently used day should be evicted").isNull();
+        assertThat(cache.getHitCount()).as("Hits should be counted").isEqualTo(2L);
+        assertThat(cache.getMissCount()).as("Misses should be counted").isEqualTo(1L);
+    }
+
+    @Test
+    public void testKeyContainsLocation() {
+
+        final LruDayCache cache = new LruDayCache(10);
+
+        cache.put( new MunichLocationProvider(), new DayStorableDataSetPojo(DATE) );
+
+        final Position munich = MunichLocationProvider.POSITION_MUNICH;
+
+        assertThat( cache.get(locationOf(munich.getLatitude() + 1e-9, munich.getLongitude(),
+                MunichLocationProvider.TIME_ZONE_ID), DATE) )
+                .as("Positions differing less than precision should share days").isNotNull();
+        assertThat( cache.get(locationOf(munich.getLatitude() + 0.01, munich.getLongitude(),
+                MunichLocationProvider.TIME_ZONE_ID), DATE) )
+                .as("Other positions should not share days").isNull();
+        assertThat( cache.get(locationOf(munich.getLatitude(), munich.getLongitude(), ZoneId.of("UTC")), DATE) )
+                .as("Other time zones should not share days").isNull();
+    }
+
+    @Test
+    public void testCalendarsShareCachedDays() {
+
+        final LruDayCache cache = new LruDayCache(100);
+        final DateRange range = new DateRange(DATE, DATE.plusDays(4));
+
+        final Calendar first = new Calendar(range, Scope.DAY, new MunichLocationProvider());
+        first.setDayCache(cache);
+        first.startGeneration();
+
+        final Calendar second = new Calendar(range, Scope.DAY, new MunichLocationProvider());
+        second.setDayCache(cache);
+        second.startGeneration();
+
+        assertThat(cache.getHitCount()).as("Second calendar should get all days from cache").isEqualTo((long) range.size());
+        assertThat(second.getAllDays()).as("Second calendar should contain all days").hasSize(range.size());
+        assertThat(second.getAllDays().get(0).getPlanetaryData().getLunarLongitude())
+                .as("Cached data should equal calculated data")
+                .isEqualTo(first.getAllDays().get(0).getPlanetaryData().getLunarLongitude());
+        assertThat(second.getAllDays().get(0)).as("Calendars should not share Day-objects")
+                .isNotEqualTo(first.getAllDays().get(0));
+    }
+
+    @Test
+    public void testInterpolatedDaysAreNotShared() {
+
+        final LruDayCache cache = new LruDayCache(100);
+        final DateRange range = new DateRange(DATE, DATE.plusDays(4));
+
+        final Calendar calculated = new Calendar(range, Scope.DAY, new MunichLocationProvider());
+        calculated.setDayCache(cache);
+        calculated.startGeneration();
+
+        final Calendar interpolated = new Calendar(range, Scope.DAY, new MunichLocationProvider());
+        interpolated.setDayCache(cache);
+        interpolated.setLunarEphemeris( new LunarEphemeris() );
+        interpolated.startGeneration();
+
+        assertThat(cache.getHitCount()).as("Calendar using an ephemeris should not read the cache").isEqualTo(0L);
+        assertThat(cache.size()).as("Calendar using an ephemeris should not fill the cache").isEqualTo(range.size());
+    }
+
+    private static LocationProvider locationOf(final double latitude, final double longitude, final ZoneId zoneId) {
+
+        return new LocationProvider() {
+            @Override
+            public ZoneId getTimeZoneId() {
+                return zoneId;
+            }
+
+            @Override
+            public Position getObserverPosition() {
+                return new Position(latitude, longitude);
+            }
+        };
+    }
+}
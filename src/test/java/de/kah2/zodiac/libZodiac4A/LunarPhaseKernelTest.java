@@ -0,0 +1,53 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import de.kah2.zodiac.libZodiac4A.planetary.LunarPhase;
+import de.kah2.zodiac.libZodiac4A.planetary.PlanetaryDayData;
+
+public class LunarPhaseKernelTest {
+
+    @Test
+    public void testPhasesAndCounters() {
+
+        // full moon at index 2, new moon at index 6
+        final double[] visibilities = { 0.8, 0.9, 1.0, 0.9, 0.5, 0.1, 0.0, 0.1, 0.2 };
+        final int size = visibilities.length;
+
+        final LunarPhase[] phases = new LunarPhase[size];
+        final int[] daysSince = new int[size];
+        final int[] daysUntil = new int[size];
+
+        LunarPhaseKernel.calculateLunarPhasesAndCountDays(visibilities, phases, daysSince, daysUntil, size, 1, size - 2);
+
+        assertThat(phases[0]).as("First day has no phase").isNull();
+        assertThat(phases[1]).as("Phase before full moon").isEqualTo(LunarPhase.INCREASING);
+        assertThat(phases[2]).as("Full moon should be found").isEqualTo(LunarPhase.FULL_MOON);
+        assertThat(phases[4]).as("Phase after full moon").isEqualTo(LunarPhase.DECREASING);
+        assertThat(phases[6]).as("New moon should be found").isEqualTo(LunarPhase.NEW_MOON);
+        assertThat(phases[size - 1]).as("Last day has no phase").isNull();
+
+        assertThat(daysSince[1]).as("No extreme before second day")
+                .isEqualTo(PlanetaryDayData.DAY_COUNT_NOT_CALCULATED);
+        assertThat(daysSince[2]).as("Counter should be reset at extreme").isEqualTo(0);
+        assertThat(daysSince[5]).as("Days since full moon").isEqualTo(3);
+        assertThat(daysUntil[3]).as("Days until new moon").isEqualTo(3);
+        assertThat(daysUntil[0]).as("Days until full moon").isEqualTo(2);
+        assertThat(daysUntil[7]).as("No extreme after new moon")
+                .isEqualTo(PlanetaryDayData.DAY_COUNT_NOT_CALCULATED);
+    }
+
+    @Test
+    public void testOnlyPhasesInRangeAreCalculated() {
+
+        final double[] visibilities = { 0.1, 0.2, 0.3, 0.4, 0.5 };
+        final LunarPhase[] phases = { null, LunarPhase.FULL_MOON, null, null, null };
+
+        LunarPhaseKernel.calculateLunarPhasesAndCountDays(visibilities, phases, new int[5], new int[5], 5, 2, 3);
+
+        assertThat(phases[1]).as("Phase outside of range should be kept").isEqualTo(LunarPhase.FULL_MOON);
+        assertThat(phases[2]).as("Phase within range should be calculated").isEqualTo(LunarPhase.INCREASING);
+    }
+}
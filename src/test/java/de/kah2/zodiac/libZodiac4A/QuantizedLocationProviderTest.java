@@ -0,0 +1,65 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.temporal.ChronoUnit;
+
+import de.kah2.zodiac.libZodiac4A.planetary.Position;
+import de.kah2.zodiac.libZodiac4A.planetary.RiseSet;
+
+public class QuantizedLocationProviderTest {
+
+    private final static double GRID_SIZE = 0.1;
+
+    @Test
+    public void testPositionIsSnappedToGrid() {
+
+        final QuantizedLocationProvider provider = new QuantizedLocationProvider(new MunichLocationProvider(), GRID_SIZE);
+        final Position position = provider.getObserverPosition();
+
+        assertThat(position.getLatitude()).as("Latitude should be snapped").isCloseTo(48.1, 1e-9);
+        assertThat(position.getLongitude()).as("Longitude should be snapped").isCloseTo(11.6, 1e-9);
+        assertThat(provider.getTimeZoneId()).as("Time zone should be kept")
+                .isEqualTo(MunichLocationProvider.TIME_ZONE_ID);
+    }
+
+    @Test
+    public void testSnappedPositionStaysValid() {
+
+        final Position position = new Position(89.9, 179.9).snapToGrid(7);
+
+        assertThat(position.getLatitude()).as("Latitude should not exceed maximum").isEqualTo(90.0);
+        assertThat(position.getLongitude()).as("Longitude should not exceed maximum").isEqualTo(180.0);
+    }
+
+    @Test
+    public void testRiseSetErrorIsWithinEstimation() {
+
+        final MunichLocationProvider munich = new MunichLocationProvider();
+        final QuantizedLocationProvider quantized = new QuantizedLocationProvider(munich, GRID_SIZE);
+
+        final double maxError = QuantizedLocationProvider.getMaxRiseSetErrorMinutes(GRID_SIZE,
+                MunichLocationProvider.POSITION_MUNICH.getLatitude());
+
+        assertThat(maxError).as("Error should be less than a minute in middle Europe").isLessThan(1.0);
+
+        final Day exact = Day.calculateFor(munich, TestConstantsAndHelpers.SOME_DATE);
+        final Day approximated = Day.calculateFor(quantized, TestConstantsAndHelpers.SOME_DATE);
+
+        final RiseSet exactRiseSet = exact.getPlanetaryData().getSolarRiseSet();
+        final RiseSet approximatedRiseSet = approximated.getPlanetaryData().getSolarRiseSet();
+
+        // times are truncated to the minute, which adds up to one minute
+        assertThat( (double) Math.abs(ChronoUnit.MINUTES.between(exactRiseSet.getRise(), approximatedRiseSet.getRise())) )
+                .as("Solar rise should be within estimated error").isLessThan(maxError + 1);
+    }
+
+    @Test
+    public void testErrorIsUnlimitedNearPoles() {
+
+        assertThat(QuantizedLocationProvider.getMaxRiseSetErrorMinutes(GRID_SIZE, 70))
+                .as("There should be no limit, where moon might be circumpolar").isEqualTo(Double.POSITIVE_INFINITY);
+    }
+}
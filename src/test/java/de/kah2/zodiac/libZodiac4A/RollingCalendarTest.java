@@ -0,0 +1,108 @@
+package de.kah2.zodiac.libZodiac4A;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import de.kah2.zodiac.libZodiac4A.Calendar.Scope;
+
+public class RollingCalendarTest {
+
+    @Test
+    public void testAdvanceCalculatesOnlyNewDays() {
+
+        final int windowSize = 10;
+        final LocalDate start = TestConstantsAndHelpers.SOME_DATE;
+
+        final List<Day> evicted = new ArrayList<>();
+        final Calendar calendar = new CalendarStub( new DateRange(start, start), Scope.PHASE );
+        final RollingCalendar rolling = new RollingCalendar(calendar, windowSize, evicted::add);
+
+        final List<Day> initial = rolling.advanceTo(start);
+
+		assertThat(initial).as("Window and its neighbors should be calculated initially").hasSize(windowSize + 2);
+		assertThat(evicted).as("Nothing should be evicted initially").isEmpty();
+
+        for (int i = 1; i <= 3; i++) {
+
+            final List<Day> generated = rolling.advance();
+
+			assertThat(generated).as("Only one day should be calculated when advancing").hasSize(1);
+			assertThat(generated.get(0).getDate()).as("Day after window should be calculated").isEqualTo(start.plusDays(windowSize + i));
+			assertThat(evicted).as("One day should be evicted per advance").hasSize(i);
+			assertThat(evicted.get(i - 1).getDate()).as("Oldest day should be evicted").isEqualTo(start.plusDays(i - 2));
+        }
+
+        final DateRange window = new DateRange(start.plusDays(3), start.plusDays(windowSize + 2));
+
+		assertThat(calendar.getRangeExpected().isEqual(window)).as("Window should have moved").isTrue();
+		assertThat(calendar.getValidDays()).as("All days of window should be valid").hasSize(windowSize);
+		assertThat(calendar.get(window.getEnd()).getPlanetaryData().getLunarPhase()).as("New day should have lunar phase").isNotNull();
+    }
+
+    @Test
+    public void testAdvanceKeepsCycleCounters() {
+
+        final LocalDate start = TestConstantsAndHelpers.SOME_DATE;
+        final Calendar calendar = new CalendarStub( new DateRange(start, start), Scope.CYCLE );
+        final RollingCalendar rolling = new RollingCalendar(calendar, 3, day -> {});
+
+        rolling.advanceTo(start);
+
+        for (int i = 0; i < 20; i++) {
+
+            rolling.advance();
+
+            for (Day day : calendar.getValidDays()) {
+                if ( calendar.getRangeExpected().contains(day.getDate()) ) {
+					assertThat(day.getPlanetaryData().isComplete()).as(day.getDate() + " should have lunar phase and counters").isTrue();
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testAdvanceOnlyGeneratesEnd() {
+
+        final LocalDate start = TestConstantsAndHelpers.SOME_DATE;
+        final Calendar calendar = new CalendarStub( new DateRange(start, start), Scope.CYCLE );
+        final RollingCalendar rolling = new RollingCalendar(calendar, 3, day -> {});
+
+        rolling.advanceTo(start);
+
+        final List<ProgressListener.State> states = new ArrayList<>();
+        calendar.addProgressListener( new ProgressListener() {
+
+            @Override
+            public void onStateChanged(final State state) {
+                states.add(state);
+            }
+
+            @Override
+            public void onCalculationProgress(final float percent) {}
+        });
+
+        for (int i = 0; i < 20; i++) {
+            rolling.advance();
+        }
+
+		assertThat(states.contains(ProgressListener.State.EXTENDING_PAST)).as("Past shouldn't be extended when advancing").isFalse();
+
+        final Calendar generated = new CalendarStub( calendar.getRangeExpected(), Scope.CYCLE );
+        generated.startGeneration();
+
+        for (LocalDate date : calendar.getRangeExpected()) {
+
+            final Day day = calendar.get(date);
+            final Day expected = generated.get(day.getDate());
+
+			assertThat(day.getPlanetaryData().getLunarPhase()).as(date + " should have the lunar phase of a full generation").isEqualTo(expected.getPlanetaryData().getLunarPhase());
+			assertThat(day.getPlanetaryData().getDaysSinceLastMaxPhase()).as(date + " should have the counters of a full generation").isEqualTo(expected.getPlanetaryData().getDaysSinceLastMaxPhase());
+			assertThat(day.getPlanetaryData().getDaysUntilNextMaxPhase()).as(date + " should have the counters of a full generation").isEqualTo(expected.getPlanetaryData().getDaysUntilNextMaxPhase());
+        }
+    }
+}
@@ -4,6 +4,9 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 public class TestConstantsAndHelpers {
 
@@ -47,36 +50,19 @@ public class TestConstantsAndHelpers {
 	 * time limit
 	 */
 	public static boolean generateAndWaitFor(CalendarGenerator generator, int maxWait) {
-		final LastStateProgressListener listener = new LastStateProgressListener();
-
-		generator.getProgressManager().addProgressListener(listener);
-
-		generator.startGeneration();
 
-		int msWaited = 0;
-		boolean exitedNormally = true;
-
-		while (listener.getLastState() != ProgressListener.State.FINISHED) {
-
-			try {
-				Thread.sleep(sleepStepMs);
-				msWaited += sleepStepMs;
-
-				if (msWaited > maxWait) {
-					int remaining = generator.getExecutor().shutdownNow().size();
-					LoggerFactory.getLogger( "TestConstantsAndHelpers#generateAndWaitFor(CalendarGenerator,int)" )
-							.trace( "Terminated executor - {} jobs were still waiting", remaining );
-					exitedNormally = false;
-					break;
-				}
-			}
-			catch (InterruptedException e) {
-				LOG.error("Interrupted", e);
-			}
+		try {
+			generator.generateAsync(Runnable::run).get(maxWait, TimeUnit.MILLISECONDS);
+			return true;
+		}
+		catch (TimeoutException e) {
+			LOG.trace("Generation didn't finish within {}ms", maxWait);
+			return false;
+		}
+		catch (InterruptedException | ExecutionException e) {
+			LOG.error("Generation failed", e);
+			return false;
 		}
-
-		generator.getProgressManager().removeProgressListener(listener);
-		return exitedNormally;
 	}
 
 
@@ -4,7 +4,6 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.time.LocalDate;
-import java.util.LinkedList;
 import java.util.List;
 import java.util.stream.Collectors;
 
@@ -48,10 +47,10 @@ public class CalendarExampleStorage {
 
 		CalendarExampleStorage.LOG.info( "Generating Calendar for DateRange: {}", range );
 		TestConstantsAndHelpers.generateAndWaitFor(calendar);
-		LinkedList<Day> generated = calendar.getNewlyGenerated();
+		List<Day> generated = calendar.getNewlyGenerated();
 		CalendarExampleStorage.LOG.info( "=> Data generated: {} -> {}",
-				generated.getFirst().getDate(),
-				generated.getLast().getDate() );
+				generated.get(0).getDate(),
+				generated.get(generated.size() - 1).getDate() );
 
 		// Here we can store the newly created days for next time ...
 		final List<DayStorableDataSet> fakeDatabase = generated.stream()
@@ -72,16 +71,16 @@ public class CalendarExampleStorage {
 		// Import stored data:
 		calendar.importDays(fakeDatabase);
 
-		LinkedList<Day> days = calendar.getAllDays();
-		CalendarExampleStorage.LOG.info( "Data loaded: {} -> {}", days.getFirst().getDate(), days.getLast().getDate() );
+		List<Day> days = calendar.getAllDays();
+		CalendarExampleStorage.LOG.info( "Data loaded: {} -> {}", days.get(0).getDate(), days.get(days.size() - 1).getDate() );
 
 		// And generate the new ones:
 		CalendarExampleStorage.LOG.info( "Generating Calendar for DateRange: {}", range );
 		TestConstantsAndHelpers.generateAndWaitFor(calendar);
 		generated = calendar.getNewlyGenerated();
 		CalendarExampleStorage.LOG.info( "=> Data generated: {} -> {}",
-				generated.getFirst().getDate(),
-				generated.getLast().getDate() );
+				generated.get(0).getDate(),
+				generated.get(generated.size() - 1).getDate() );
 
 		// Store the newly created ...
 		fakeDatabase.addAll( generated.stream()
@@ -102,18 +101,18 @@ public class CalendarExampleStorage {
 		calendar.importDays(fakeDatabase);
 
 		days = calendar.getAllDays();
-		CalendarExampleStorage.LOG.info( "Data loaded: {} -> {}", days.getFirst().getDate(), days.getLast().getDate() );
+		CalendarExampleStorage.LOG.info( "Data loaded: {} -> {}", days.get(0).getDate(), days.get(days.size() - 1).getDate() );
 
 		CalendarExampleStorage.LOG.info( "Generating Calendar for DateRange: {}", range );
 		TestConstantsAndHelpers.generateAndWaitFor(calendar);
 		generated = calendar.getNewlyGenerated();
-		CalendarExampleStorage.LOG.info( "=> Data generated: {} -> {}", generated.getFirst().getDate(), generated.getLast().getDate() );
+		CalendarExampleStorage.LOG.info( "=> Data generated: {} -> {}", generated.get(0).getDate(), generated.get(generated.size() - 1).getDate() );
 
 		// Now we have an inconsistent Calendar containing a gap and should:
 
 		// Remove past (or all) days that aren't needed anymore ...
-		final LinkedList<Day> removed = calendar.removeOverhead(false);
-		CalendarExampleStorage.LOG.info( "Removed overhead: {} -> {}", removed.getFirst().getDate(), removed.getLast().getDate() );
+		final List<Day> removed = calendar.removeOverhead(false);
+		CalendarExampleStorage.LOG.info( "Removed overhead: {} -> {}", removed.get(0).getDate(), removed.get(removed.size() - 1).getDate() );
 
 		// OR correct the expectedRange to include imported days ...
 //		calendar.fixRangeExpectedToIncludeExistingDays();
@@ -123,7 +122,7 @@ public class CalendarExampleStorage {
 		// and generate again (or better fix the range between import and first call of generate)
 //		CalendarExampleStorage.LOG.info("Generating Calendar for DateRange: " + range);
 //		generated = calendar.generate();
-//		CalendarExampleStorage.LOG.info("=> Data generated: " + generated.getFirst().getDate() + " -> " + generated.getLast().getDate());
+//		CalendarExampleStorage.LOG.info("=> Data generated: " + generated.get(0).getDate() + " -> " + generated.get(generated.size() - 1).getDate());
 	}
 
 	public static void main(final String[] args) {
@@ -0,0 +1,39 @@
+package de.kah2.zodiac.libZodiac4A.planetary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+
+/**
+ * Tests for {@link JulianDateConverter}.
+ */
+public class JulianDateConverterTest {
+
+	private static final double JULIAN_DATE_OF_EPOCH = 2440587.5;
+
+	@Test
+	public void testConversionEqualsZonedDateTimeAroundDaylightSavingTime() {
+
+		final ZoneId zoneId = ZoneId.of("Europe/Berlin");
+		final JulianDateConverter converter = new JulianDateConverter(zoneId);
+
+		// contains both transitions of 2017 (03-26 and 10-29)
+		final LocalTime[] times = { LocalTime.MIDNIGHT, LocalTime.of(2, 30), LocalTime.NOON };
+
+		for (LocalDate date = LocalDate.of(2017, 3, 20); date.isBefore(LocalDate.of(2017, 11, 5)); date = date.plusDays(1)) {
+
+			for (LocalTime time : times) {
+
+				final double expected = ZonedDateTime.of(date, time, zoneId).toEpochSecond() / 86400.0 + JULIAN_DATE_OF_EPOCH;
+
+				assertThat(converter.toJulianDate(date, time)).as("Julian date of " + date + "T" + time + " should be correct")
+						.isEqualTo(expected);
+			}
+		}
+	}
+}
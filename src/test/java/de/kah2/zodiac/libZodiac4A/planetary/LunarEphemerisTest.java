@@ -0,0 +1,72 @@
+package de.kah2.zodiac.libZodiac4A.planetary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.kah2.zodiac.libZodiac4A.MunichLocationProvider;
+import de.kah2.zodiac.nova4jmt.api.LnLnlatPosn;
+import de.kah2.zodiac.nova4jmt.solarsystem.Lunar;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+/**
+ * Tests for {@link LunarEphemeris}.
+ */
+public class LunarEphemerisTest {
+
+	@Test
+	public void testInterpolationEqualsCalculation() {
+
+		final LunarEphemeris ephemeris = new LunarEphemeris();
+		final LnLnlatPosn position = new LnLnlatPosn();
+
+		// about three years crossing chunk borders - not on grid points
+		for (double julianDate = 2457000.1; julianDate < 2458100; julianDate += 0.37) {
+
+			Lunar.ln_get_lunar_ecl_coords(julianDate, position, 0.01);
+
+			// longitudes near 0 and 360 are equal
+			final double difference = Math.abs(ephemeris.getLunarLongitude(julianDate) - position.lng);
+
+			assertThat(Math.min(difference, 360 - difference)).as("Longitude at " + julianDate + " should be interpolated")
+					.isLessThan(0.0001);
+			assertThat(ephemeris.getLunarDisk(julianDate)).as("Disk at " + julianDate + " should be interpolated")
+					.isCloseTo(Lunar.ln_get_lunar_disk(julianDate), 0.00001);
+		}
+	}
+
+	@Test
+	public void testChunksAreLimited() {
+
+		final LunarEphemeris ephemeris = new LunarEphemeris(2);
+
+		// 128 days per chunk
+		final double julianDate = 2457000.1;
+		ephemeris.getLunarLongitude(julianDate);
+		ephemeris.getLunarLongitude(julianDate + 130);
+		ephemeris.getLunarLongitude(julianDate + 1000);
+
+		assertThat(ephemeris.getChunkCount()).as("Ephemeris should not keep more chunks than allowed").isEqualTo(2);
+		assertThat(ephemeris.getLunarDisk(julianDate)).as("Dropped chunk should be built again")
+				.isCloseTo(Lunar.ln_get_lunar_disk(julianDate), 0.00001);
+	}
+
+	@Test
+	public void testCalculationWithEphemeris() {
+
+		final MunichLocationProvider locationProvider = new MunichLocationProvider();
+		final LocalDate date = LocalDate.of(2016, 12, 9);
+
+		final PlanetaryDayData calculated = PlanetaryDayData.calculateFor(date, locationProvider);
+		final PlanetaryDayData interpolated = PlanetaryDayData.calculateFor(date, locationProvider, false,
+				LunarEphemeris.getShared());
+
+		assertThat(interpolated.getLunarLongitude()).as("Interpolated longitude should equal calculated one")
+				.isCloseTo(calculated.getLunarLongitude(), 0.0001);
+		assertThat(interpolated.getLunarVisibility()).as("Interpolated visibility should equal calculated one")
+				.isCloseTo(calculated.getLunarVisibility(), 0.00001);
+		assertThat(PlanetaryDayData.calculateLunarVisibilityFor(date, locationProvider, LunarEphemeris.getShared()))
+				.as("Visibility alone should equal the one of the day").isEqualTo(interpolated.getLunarVisibility());
+	}
+}
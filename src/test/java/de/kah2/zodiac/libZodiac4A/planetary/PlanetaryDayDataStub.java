@@ -48,7 +48,10 @@ public class PlanetaryDayDataStub extends PlanetaryDayData {
 		return data;
 	}
 
-	private static double getFakeLunarVisibility(LocalDate date) {
+	/**
+	 * Returns the simulated visibility {@link #calculateFor(LocalDate, LocationProvider)} sets.
+	 */
+	public static double getFakeLunarVisibility(LocalDate date) {
 
 		final long epochDay = date.toEpochDay();
 
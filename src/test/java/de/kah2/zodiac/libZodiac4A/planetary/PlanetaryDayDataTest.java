@@ -0,0 +1,105 @@
+package de.kah2.zodiac.libZodiac4A.planetary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import de.kah2.zodiac.libZodiac4A.DateRange;
+import de.kah2.zodiac.libZodiac4A.MunichLocationProvider;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Tests for {@link PlanetaryDayData}.
+ */
+public class PlanetaryDayDataTest {
+
+	@Test
+	public void testLazyRiseSetCalculationEqualsEagerCalculation() {
+
+		final MunichLocationProvider locationProvider = new MunichLocationProvider();
+		final LocalDate date = LocalDate.of(2016, 12, 9);
+
+		final PlanetaryDayData eager = PlanetaryDayData.calculateFor(date, locationProvider, false);
+		final PlanetaryDayData lazy = PlanetaryDayData.calculateFor(date, locationProvider, true);
+
+		assertThat(lazy.getLunarPhase()).as("Lunar phase should not depend on rise and set calculation")
+				.isEqualTo(eager.getLunarPhase());
+		assertThat(lazy.getLunarVisibility()).as("Lunar visibility should not depend on rise and set calculation")
+				.isEqualTo(eager.getLunarVisibility());
+
+		assertThat(lazy.getSolarRiseSet().getRise()).as("Lazy solar rise should equal eager one")
+				.isEqualTo(eager.getSolarRiseSet().getRise());
+		assertThat(lazy.getSolarRiseSet().getSet()).as("Lazy solar set should equal eager one")
+				.isEqualTo(eager.getSolarRiseSet().getSet());
+		assertThat(lazy.getLunarRiseSet().getRise()).as("Lazy lunar rise should equal eager one")
+				.isEqualTo(eager.getLunarRiseSet().getRise());
+		assertThat(lazy.getLunarRiseSet().getSet()).as("Lazy lunar set should equal eager one")
+				.isEqualTo(eager.getLunarRiseSet().getSet());
+	}
+
+	@Test
+	public void testProbedVisibilityIsReused() {
+
+		final MunichLocationProvider locationProvider = new MunichLocationProvider();
+		final LocalDate date = LocalDate.of(2016, 12, 9);
+
+		final double probed = PlanetaryDayData.calculateLunarVisibilityFor(date, locationProvider);
+
+		final PlanetaryDayData calculated = PlanetaryDayData.calculateFor(date, locationProvider, false, null);
+		final PlanetaryDayData reused = PlanetaryDayData.calculateFor(date, locationProvider, false, null, probed);
+
+		assertThat(reused.getLunarVisibility()).as("Probed visibility should equal calculated one")
+				.isEqualTo(calculated.getLunarVisibility());
+		assertThat(reused.getLunarLongitude()).as("Lunar longitude should still be calculated")
+				.isEqualTo(calculated.getLunarLongitude());
+
+		assertThat(PlanetaryDayData.calculateFor(date, locationProvider, false, null, 0.5).getLunarVisibility())
+				.as("Given visibility should be used instead of calculating it").isEqualTo(0.5);
+	}
+
+	@Test
+	public void testRiseSetStorage() {
+
+		final PlanetaryDayData data = new PlanetaryDayData();
+		final Instant rise = Instant.parse("2016-12-09T07:52:00Z");
+
+		data.setLunarRiseSet(null);
+		data.setSolarRiseSet(new RiseSet(rise, null));
+
+		assertThat(data.getLunarRiseSet()).as("Circumpolar rise and set should be kept").isNull();
+		assertThat(data.getSolarRiseSet().getRise()).as("Rise should be restored").isEqualTo(rise);
+		assertThat(data.getSolarRiseSet().getSet()).as("Missing set should be kept").isNull();
+	}
+
+	@Test
+	public void testRangeCalculationEqualsCalculationPerDay() {
+
+		final MunichLocationProvider locationProvider = new MunichLocationProvider();
+		final DateRange range = new DateRange(LocalDate.of(2016, 12, 1), LocalDate.of(2016, 12, 31));
+
+		final List<PlanetaryDayData> dataOfRange = PlanetaryDayData.calculateRange(range, locationProvider);
+
+		assertThat(dataOfRange).as("There should be data for each day of the range").hasSize(range.size());
+
+		int i = 0;
+		for (LocalDate date : range) {
+
+			final PlanetaryDayData expected = PlanetaryDayData.calculateFor(date, locationProvider);
+			final PlanetaryDayData actual = dataOfRange.get(i++);
+
+			assertThat(actual.getLunarVisibility()).as("Lunar visibility of " + date + " should equal single calculation")
+					.isEqualTo(expected.getLunarVisibility());
+			assertThat(actual.getLunarLongitude()).as("Lunar longitude of " + date + " should equal single calculation")
+					.isEqualTo(expected.getLunarLongitude());
+			assertThat(actual.getSolarRiseSet().getRise()).as("Solar rise of " + date + " should equal single calculation")
+					.isEqualTo(expected.getSolarRiseSet().getRise());
+			assertThat(actual.getLunarRiseSet().getRise()).as("Lunar rise of " + date + " should equal single calculation")
+					.isEqualTo(expected.getLunarRiseSet().getRise());
+			assertThat(actual.getLunarRiseSet().getSet()).as("Lunar set of " + date + " should equal single calculation")
+					.isEqualTo(expected.getLunarRiseSet().getSet());
+		}
+	}
+}
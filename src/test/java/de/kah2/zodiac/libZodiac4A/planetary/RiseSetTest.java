@@ -0,0 +1,45 @@
+package de.kah2.zodiac.libZodiac4A.planetary;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+
+/**
+ * Tests for {@link RiseSet}.
+ */
+public class RiseSetTest {
+
+	@Test
+	public void testJulianDateIsTruncatedToMinute() {
+
+		// 2016-12-09T07:52:41.5Z
+		final double julianDate = 2457731.5 + (7 * 3600 + 52 * 60 + 41.5) / 86400;
+
+		assertThat(RiseSet.toEpochSecond(julianDate)).as("Julian date should be truncated to the minute")
+				.isEqualTo(Instant.parse("2016-12-09T07:52:00Z").getEpochSecond());
+	}
+
+	@Test
+	public void testInstantsAreKept() {
+
+		final Instant rise = Instant.parse("2016-12-09T07:52:00Z");
+		final RiseSet riseSet = new RiseSet(rise, null);
+
+		assertThat(riseSet.getRise()).as("Rise should be kept").isEqualTo(rise);
+		assertThat(riseSet.getRiseEpochSecond()).as("Rise should be available as epoch second")
+				.isEqualTo(rise.getEpochSecond());
+		assertThat(riseSet.getSet()).as("Missing set should be kept").isNull();
+		assertThat(riseSet.getRise()).as("Rise should be created only once").isSameAs(riseSet.getRise());
+	}
+
+	@Test
+	public void testRiseSetsOfDayAreKept() {
+
+		final PlanetaryDayData data = new PlanetaryDayData();
+		data.setSolarRiseSet( new RiseSet(Instant.parse("2016-12-09T07:52:00Z"), Instant.parse("2016-12-09T16:22:00Z")) );
+
+		assertThat(data.getSolarRiseSet()).as("RiseSet should be created only once").isSameAs(data.getSolarRiseSet());
+	}
+}